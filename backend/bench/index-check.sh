@@ -0,0 +1,91 @@
+#!/usr/bin/env bash
+# Check that the hot repository queries use index access paths on a large seeded dataset.
+#
+# Requires: docker compose (uses the db service)
+# Usage:    bench/index-check.sh [portfolios] [children-per-portfolio]
+#
+# A scratch database is created next to the application database, the Flyway migrations from
+# src/main/resources/db/migration are applied in version order, users/portfolios/experiences/
+# educations are seeded and analyzed, and each query below is EXPLAINed in the shape Hibernate
+# sends it. Exits 1 if any plan reads one of the tables with a sequential scan.
+set -euo pipefail
+
+PORTFOLIOS="${1:-200000}"
+CHILDREN="${2:-10}"
+DB="flexfolio_index_check"
+ROOT="$(cd "$(dirname "$0")/../.." && pwd)"
+MIGRATIONS="$(cd "$(dirname "$0")/.." && pwd)/src/main/resources/db/migration"
+
+psql_in() {
+  local database="$1"; shift
+  (cd "$ROOT" && docker compose exec -T db psql -U myuser -d "$database" -v ON_ERROR_STOP=1 -qAt "$@")
+}
+
+(cd "$ROOT" && docker compose up -d db)
+until (cd "$ROOT" && docker compose exec -T db pg_isready -U myuser -q); do sleep 1; done
+
+echo "== schema"
+psql_in postgres -c "DROP DATABASE IF EXISTS $DB" -c "CREATE DATABASE $DB"
+for migration in $(ls "$MIGRATIONS"/V*__*.sql | sort -V); do
+  echo "   $(basename "$migration")"
+  psql_in "$DB" < "$migration"
+done
+
+echo "== seed ($PORTFOLIOS portfolios, $CHILDREN experiences and educations each)"
+psql_in "$DB" -v portfolios="$PORTFOLIOS" -v children="$CHILDREN" <<'SQL'
+INSERT INTO user_ (email, password, created_at)
+SELECT 'User' || g || '@Example.com', 'x', now() FROM generate_series(1, :portfolios / 2) g;
+
+INSERT INTO portfolio (user_id, version)
+SELECT 1 + g % (:portfolios / 2), 0 FROM generate_series(1, :portfolios) g;
+
+INSERT INTO experience (id_exp, position_, employer, responsibilities, ongoing, id_portfolio)
+SELECT g, 'Developer ' || g % 1000, 'Employer ' || g % 5000, 'Built and ran service ' || g, false, 1 + g % :portfolios
+FROM generate_series(1, :portfolios * :children) g;
+
+INSERT INTO education (id_edu, title_of_qualification, training, ongoing, id_portfolio)
+SELECT g, 'Master ' || g % 500, 'University ' || g % 2000, false, 1 + g % :portfolios
+FROM generate_series(1, :portfolios * :children) g;
+
+INSERT INTO search_entry (entity_type, entity_id, portfolio_id, title, subtitle, document)
+SELECT 'EXPERIENCE', id_exp, id_portfolio, position_, employer,
+       setweight(to_tsvector('simple', position_), 'A')
+    || setweight(to_tsvector('simple', coalesce(employer, '')), 'B')
+    || setweight(to_tsvector('simple', coalesce(responsibilities, '')), 'C')
+FROM experience;
+
+ANALYZE;
+SQL
+
+# name|query, as generated for the repository methods
+QUERIES=(
+  "ExperienceRepository.findDtosByPortfolioId|SELECT e.id_exp, e.position_, e.employer FROM experience e WHERE e.id_portfolio = 4242 ORDER BY e.id_exp"
+  "EducationRepository.findDtosByPortfolioId|SELECT e.id_edu, e.title_of_qualification FROM education e WHERE e.id_portfolio = 4242 ORDER BY e.id_edu"
+  "PortfolioEntity.experiences (batch of 100)|SELECT * FROM experience e WHERE e.id_portfolio = ANY (ARRAY(SELECT generate_series(4200, 4299)::bigint))"
+  "PortfolioEntity.educations (batch of 100)|SELECT * FROM education e WHERE e.id_portfolio = ANY (ARRAY(SELECT generate_series(4200, 4299)::bigint))"
+  "PortfolioRepository.findByUserId|SELECT p.id, p.version, u.id, u.email FROM portfolio p JOIN user_ u ON u.id = p.user_id WHERE p.user_id = 2121"
+  "PortfolioRepository.findVersionsByUserIdOrderByIdAsc|SELECT p.id, p.version FROM portfolio p WHERE p.user_id = 2121 ORDER BY p.id"
+  "UserRepository.findByEmail|SELECT u.id, u.email, u.password FROM user_ u WHERE lower(u.email) = lower('user2121@example.com')"
+  "SearchIndexRepository.search|SELECT s.entity_id, ts_rank_cd(s.document, q.query) FROM search_entry s, websearch_to_tsquery('simple', 'developer 42') q(query) WHERE s.document @@ q.query"
+)
+
+echo "== plans"
+failures=0
+for entry in "${QUERIES[@]}"; do
+  name="${entry%%|*}"
+  query="${entry#*|}"
+  plan=$(psql_in "$DB" -c "EXPLAIN $query")
+  if echo "$plan" | grep -Eq "Seq Scan on (experience|education|portfolio|user_|search_entry)\b"; then
+    echo "FAIL $name"
+    echo "$plan" | sed 's/^/     /'
+    failures=$((failures + 1))
+  else
+    echo "ok   $name: $(echo "$plan" | grep -Eo '(Index Only Scan|Index Scan|Bitmap Index Scan) using [a-z_]+' | sort -u | paste -sd ',' -)"
+  fi
+done
+
+psql_in postgres -c "DROP DATABASE $DB"
+if [ "$failures" -gt 0 ]; then
+  echo "$failures quer$([ "$failures" -eq 1 ] && echo y || echo ies) without index access"
+  exit 1
+fi
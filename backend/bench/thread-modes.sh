@@ -0,0 +1,46 @@
+#!/usr/bin/env bash
+# Compare platform-thread and virtual-thread modes on throughput and p99 latency.
+#
+# Requires: docker compose, curl, jq, hey (https://github.com/rakyll/hey)
+# Usage:    bench/thread-modes.sh [requests] [concurrency]
+#
+# For each mode the stack is restarted with rate limiting off (otherwise the reads
+# group answers most of the run with 429), a user with one portfolio is seeded,
+# and GET /api/portfolios/user/{id} is driven with a fixed request count.
+# Results are written to bench/results/<mode>.txt.
+set -euo pipefail
+
+REQUESTS="${1:-20000}"
+CONCURRENCY="${2:-200}"
+BASE_URL="http://localhost:8080/api"
+ROOT="$(cd "$(dirname "$0")/../.." && pwd)"
+OUT="$(cd "$(dirname "$0")" && pwd)/results"
+mkdir -p "$OUT"
+
+run_mode() {
+  local mode="$1" virtual="$2"
+  echo "== $mode (SPRING_THREADS_VIRTUAL_ENABLED=$virtual)"
+  (cd "$ROOT" && SPRING_THREADS_VIRTUAL_ENABLED="$virtual" RATE_LIMIT_ENABLED=false docker compose up -d --build db backend)
+  until curl -s -o /dev/null "$BASE_URL/auth/validate" -X POST; do sleep 2; done
+
+  local email="bench-$mode-$RANDOM@example.com"
+  curl -s -X POST "$BASE_URL/auth/register" -H 'Content-Type: application/json' \
+    -d "{\"email\":\"$email\",\"password\":\"bench\"}" > /dev/null
+  local login token user_id
+  login=$(curl -s -X POST "$BASE_URL/auth/login" -H 'Content-Type: application/json' \
+    -d "{\"email\":\"$email\",\"password\":\"bench\"}")
+  token=$(echo "$login" | jq -r .accessToken)
+  user_id=$(echo "$login" | jq -r .userId)
+  curl -s -X POST "$BASE_URL/portfolios/$user_id" -H "Authorization: Bearer $token" \
+    -H 'Content-Type: application/json' -d '{}' > /dev/null
+
+  # Warm-up, then measured run
+  hey -n 2000 -c "$CONCURRENCY" -H "Authorization: Bearer $token" "$BASE_URL/portfolios/user/$user_id" > /dev/null
+  hey -n "$REQUESTS" -c "$CONCURRENCY" -H "Authorization: Bearer $token" "$BASE_URL/portfolios/user/$user_id" \
+    | tee "$OUT/$mode.txt" | grep -E "Requests/sec|99% in"
+
+  (cd "$ROOT" && docker compose stop backend)
+}
+
+run_mode platform false
+run_mode virtual true
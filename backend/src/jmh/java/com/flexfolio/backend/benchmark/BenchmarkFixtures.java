@@ -0,0 +1,81 @@
+package com.flexfolio.backend.benchmark;
+
+import com.flexfolio.backend.model.EducationEntity;
+import com.flexfolio.backend.model.ExperienceEntity;
+import com.flexfolio.backend.model.PortfolioEntity;
+import com.flexfolio.backend.model.UserEntity;
+
+import java.lang.reflect.Field;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared fixtures for the JMH benchmarks
+ * Builds detached entity graphs and wires field-injected components without a Spring context.
+ */
+final class BenchmarkFixtures {
+
+    static final String JWT_SECRET = "0afe0fbfbe59e9d698997152b429ecbcf72da01b3ddc3fcf38bb13936899815a";
+
+    static final long JWT_EXPIRATION_MS = 86400000L;
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Portfolio with {@code size} experiences and {@code size} educations
+     */
+    static PortfolioEntity portfolio(int size) {
+        UserEntity user = new UserEntity(1L, "bench@example.com", "hash", LocalDateTime.now());
+        PortfolioEntity portfolio = new PortfolioEntity();
+        portfolio.setId(1L);
+        portfolio.setUser(user);
+
+        List<ExperienceEntity> experiences = new ArrayList<>(size);
+        List<EducationEntity> educations = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ExperienceEntity experience = new ExperienceEntity();
+            experience.setIdExp((long) i);
+            experience.setPosition("Software Engineer " + i);
+            experience.setEmployer("Employer " + i);
+            experience.setCity("Lyon");
+            experience.setCountry("France");
+            experience.setStartDate(LocalDate.of(2015, 1, 1).plusMonths(i));
+            experience.setEndDate(LocalDate.of(2016, 1, 1).plusMonths(i));
+            experience.setResponsibilities("Designed, built and operated backend services for the portfolio platform");
+            experience.setOngoing(false);
+            experience.setPortfolio(portfolio);
+            experiences.add(experience);
+
+            EducationEntity education = new EducationEntity();
+            education.setIdEdu((long) i);
+            education.setTitleOfQualification("Master " + i);
+            education.setTraining("Computer Science");
+            education.setCity("Paris");
+            education.setCountry("France");
+            education.setStartDate(LocalDate.of(2010, 9, 1).plusMonths(i));
+            education.setEndDate(LocalDate.of(2012, 6, 30).plusMonths(i));
+            education.setOngoing(false);
+            education.setPortfolio(portfolio);
+            educations.add(education);
+        }
+        portfolio.setExperiences(experiences);
+        portfolio.setEducations(educations);
+        return portfolio;
+    }
+
+    /**
+     * Set a (possibly private, field-injected) field on a component
+     */
+    static void inject(Object target, String fieldName, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot inject " + fieldName + " into " + target.getClass().getSimpleName(), e);
+        }
+    }
+}
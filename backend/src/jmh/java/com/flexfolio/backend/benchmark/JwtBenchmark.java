@@ -0,0 +1,63 @@
+package com.flexfolio.backend.benchmark;
+
+import com.flexfolio.backend.security.JwtTokenProvider;
+import com.flexfolio.backend.security.VerifiedTokenCache;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtTokenProvider signing and verification
+ * {@code validateToken} is served from the verified-token cache after the first call;
+ * {@code getUsernameFromToken} always pays the full parse and HMAC check.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtTokenProvider tokenProvider;
+
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        tokenProvider = newTokenProvider();
+        token = tokenProvider.generateToken("bench@example.com", 1L);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return tokenProvider.generateToken("bench@example.com", 1L);
+    }
+
+    @Benchmark
+    public Boolean validateTokenCached() {
+        return tokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public String parseAndVerify() {
+        return tokenProvider.getUsernameFromToken(token);
+    }
+
+    /**
+     * Token provider wired the way the Spring context would wire it
+     */
+    static JwtTokenProvider newTokenProvider() throws Exception {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10000);
+
+        JwtTokenProvider provider = new JwtTokenProvider();
+        BenchmarkFixtures.inject(provider, "jwtSecret", BenchmarkFixtures.JWT_SECRET);
+        BenchmarkFixtures.inject(provider, "jwtExpirationMs", BenchmarkFixtures.JWT_EXPIRATION_MS);
+        BenchmarkFixtures.inject(provider, "verifiedTokenCache", cache);
+        Method init = JwtTokenProvider.class.getDeclaredMethod("init");
+        init.setAccessible(true);
+        init.invoke(provider);
+        return provider;
+    }
+}
@@ -0,0 +1,54 @@
+package com.flexfolio.backend.benchmark;
+
+import com.flexfolio.backend.security.JwtAuthenticationFilter;
+import com.flexfolio.backend.security.JwtTokenProvider;
+import com.flexfolio.backend.security.SecurityMetrics;
+import com.flexfolio.backend.security.TokenDenylist;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full JwtAuthenticationFilter pass for an authenticated GET
+ * The revocation check is answered by the denylist's Bloom filter, as for any token that was never revoked.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private JwtAuthenticationFilter filter;
+
+    private String authorization;
+
+    @Setup
+    public void setUp() throws Exception {
+        JwtTokenProvider tokenProvider = JwtBenchmark.newTokenProvider();
+        filter = new JwtAuthenticationFilter();
+        BenchmarkFixtures.inject(filter, "tokenProvider", tokenProvider);
+        BenchmarkFixtures.inject(filter, "securityMetrics", new SecurityMetrics(new SimpleMeterRegistry()));
+        TokenDenylist tokenDenylist = new TokenDenylist(null, null, new SimpleMeterRegistry(),
+            100000, 0.001, 30, BenchmarkFixtures.JWT_EXPIRATION_MS);
+        BenchmarkFixtures.inject(tokenDenylist, "loaded", true);
+        BenchmarkFixtures.inject(filter, "tokenDenylist", tokenDenylist);
+        authorization = "Bearer " + tokenProvider.generateToken("bench@example.com", 1L);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse doFilter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/portfolios/1");
+        request.addHeader("Authorization", authorization);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        SecurityContextHolder.clearContext();
+        return response;
+    }
+}
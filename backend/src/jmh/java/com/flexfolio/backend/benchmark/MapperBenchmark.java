@@ -0,0 +1,48 @@
+package com.flexfolio.backend.benchmark;
+
+import com.flexfolio.backend.dto.ExperienceDto;
+import com.flexfolio.backend.dto.PortfolioDto;
+import com.flexfolio.backend.mapper.EntityMapper;
+import com.flexfolio.backend.model.ExperienceEntity;
+import com.flexfolio.backend.model.PortfolioEntity;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EntityMapper cost per portfolio size
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    public int size;
+
+    private final EntityMapper mapper = new EntityMapper();
+
+    private PortfolioEntity portfolio;
+
+    private List<ExperienceEntity> experiences;
+
+    @Setup
+    public void setUp() {
+        portfolio = BenchmarkFixtures.portfolio(size);
+        experiences = portfolio.getExperiences();
+    }
+
+    @Benchmark
+    public PortfolioDto toPortfolioDto() {
+        return mapper.toPortfolioDto(portfolio);
+    }
+
+    @Benchmark
+    public List<ExperienceDto> toExperienceDtoList() {
+        return mapper.toExperienceDtoList(experiences);
+    }
+}
@@ -0,0 +1,37 @@
+package com.flexfolio.backend.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.flexfolio.backend.dto.PortfolioDto;
+import com.flexfolio.backend.mapper.EntityMapper;
+
+/**
+ * Bytes on the wire for one PortfolioDto per encoding, for the sizes used by PortfolioSerializationBenchmark
+ * Run: mvn -Pjmh -DskipTests compile exec:exec -Djmh.main=com.flexfolio.backend.benchmark.PayloadSizeReport -Djmh.args=
+ */
+public final class PayloadSizeReport {
+
+    private static final int[] SIZES = {1, 10, 100, 1000};
+
+    private PayloadSizeReport() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        ObjectMapper json = PortfolioSerializationBenchmark.mapper(new ObjectMapper());
+        ObjectMapper cbor = PortfolioSerializationBenchmark.mapper(new ObjectMapper(new CBORFactory()));
+        ObjectMapper smile = PortfolioSerializationBenchmark.mapper(new ObjectMapper(new SmileFactory()));
+
+        System.out.printf("%6s %10s %10s %10s %10s %10s %10s%n", "size", "json", "json.gz", "cbor", "cbor.gz", "smile", "smile.gz");
+        for (int size : SIZES) {
+            PortfolioDto portfolio = new EntityMapper().toPortfolioDto(BenchmarkFixtures.portfolio(size));
+            byte[] jsonBytes = json.writeValueAsBytes(portfolio);
+            byte[] cborBytes = cbor.writeValueAsBytes(portfolio);
+            byte[] smileBytes = smile.writeValueAsBytes(portfolio);
+            System.out.printf("%6d %10d %10d %10d %10d %10d %10d%n", size,
+                jsonBytes.length, PortfolioSerializationBenchmark.gzip(jsonBytes).length,
+                cborBytes.length, PortfolioSerializationBenchmark.gzip(cborBytes).length,
+                smileBytes.length, PortfolioSerializationBenchmark.gzip(smileBytes).length);
+        }
+    }
+}
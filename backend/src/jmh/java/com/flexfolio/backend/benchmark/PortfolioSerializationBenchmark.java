@@ -0,0 +1,100 @@
+package com.flexfolio.backend.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.flexfolio.backend.dto.PortfolioDto;
+import com.flexfolio.backend.mapper.EntityMapper;
+import com.flexfolio.backend.model.PortfolioDocumentEntity;
+import com.flexfolio.backend.service.PortfolioDocumentService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Jackson serialization of PortfolioDto with large nested lists, per wire encoding
+ * The ObjectMappers are configured like Spring Boot's default (ISO dates, JavaTimeModule).
+ * {@code transcode*} measure what GET /api/portfolios/{id} does for binary clients: re-encode the stored JSON document.
+ * Bytes per encoding are printed by {@link PayloadSizeReport}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PortfolioSerializationBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+
+    private ObjectMapper cborMapper;
+
+    private ObjectMapper smileMapper;
+
+    private PortfolioDto portfolio;
+
+    private PortfolioDocumentService documentService;
+
+    private PortfolioDocumentEntity document;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = mapper(new ObjectMapper());
+        cborMapper = mapper(new ObjectMapper(new CBORFactory()));
+        smileMapper = mapper(new ObjectMapper(new SmileFactory()));
+        portfolio = new EntityMapper().toPortfolioDto(BenchmarkFixtures.portfolio(size));
+        documentService = new PortfolioDocumentService(null, null, null, null, objectMapper, null);
+        document = new PortfolioDocumentEntity(portfolio.getId(), 0L, objectMapper.writeValueAsBytes(portfolio));
+    }
+
+    @Benchmark
+    public byte[] writeJson() throws Exception {
+        return objectMapper.writeValueAsBytes(portfolio);
+    }
+
+    @Benchmark
+    public byte[] writeJsonGzip() throws Exception {
+        return gzip(objectMapper.writeValueAsBytes(portfolio));
+    }
+
+    @Benchmark
+    public byte[] writeCbor() throws Exception {
+        return cborMapper.writeValueAsBytes(portfolio);
+    }
+
+    @Benchmark
+    public byte[] writeSmile() throws Exception {
+        return smileMapper.writeValueAsBytes(portfolio);
+    }
+
+    @Benchmark
+    public byte[] transcodeDocumentToCbor() {
+        return documentService.encode(document, MediaType.APPLICATION_CBOR);
+    }
+
+    @Benchmark
+    public byte[] transcodeDocumentToSmile() {
+        return documentService.encode(document, new MediaType("application", "x-jackson-smile"));
+    }
+
+    static ObjectMapper mapper(ObjectMapper mapper) {
+        return mapper.registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    static byte[] gzip(byte[] content) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(content);
+        }
+        return out.toByteArray();
+    }
+}
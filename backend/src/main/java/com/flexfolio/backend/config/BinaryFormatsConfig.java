@@ -0,0 +1,75 @@
+package com.flexfolio.backend.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CBOR and Smile alongside JSON
+ * The converters reuse Spring Boot's Jackson settings (ISO dates, modules) and replace the MVC defaults
+ * in place, so JSON stays first and is still what {@code Accept: *}{@code /*} gets. Clients opt in with
+ * {@code Accept: application/cbor} or {@code Accept: application/x-jackson-smile}.
+ */
+@Configuration
+public class BinaryFormatsConfig {
+
+    public static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    /** In server preference order: JSON wins ties */
+    private static final List<MediaType> PRODUCIBLE = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, SMILE);
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.createXmlMapper(false).factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.createXmlMapper(false).factory(new SmileFactory()).build());
+    }
+
+    /**
+     * Pick the encoding for an Accept header the way the message converters would
+     * @return JSON, CBOR or Smile; null when none of them is acceptable
+     */
+    public static MediaType negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> requested;
+        try {
+            requested = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+        MimeTypeUtils.sortBySpecificity(requested);
+        for (MediaType type : requested) {
+            for (MediaType producible : PRODUCIBLE) {
+                if (type.isCompatibleWith(producible) && type.getQualityValue() > 0) {
+                    return producible;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Suffix for ETags of non-JSON representations, so each encoding of a resource has its own validator
+     */
+    public static String eTagSuffix(MediaType type) {
+        if (MediaType.APPLICATION_CBOR.equals(type)) {
+            return "-cbor";
+        }
+        return SMILE.equals(type) ? "-smile" : "";
+    }
+}
@@ -0,0 +1,65 @@
+package com.flexfolio.backend.config;
+
+import com.flexfolio.backend.datasource.ReplicaDataSourceProperties;
+import com.flexfolio.backend.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Primary pool from {@code spring.datasource}, optional replica pools from {@code flexfolio.datasource.replicas},
+ * and the routing datasource that JPA, JDBC and schema initialization use
+ * Without replicas every connection goes to the primary.
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicaDataSourceProperties.class)
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource routingDataSource(HikariDataSource primaryDataSource,
+                                                      ReplicaDataSourceProperties replicaProperties,
+                                                      MeterRegistry meterRegistry) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (ReplicaDataSourceProperties.Replica replica : replicaProperties.getReplicas()) {
+            HikariDataSource dataSource = new HikariDataSource();
+            primaryDataSource.copyStateTo(dataSource);
+            dataSource.setJdbcUrl(replica.getUrl());
+            if (StringUtils.hasText(replica.getUsername())) {
+                dataSource.setUsername(replica.getUsername());
+                dataSource.setPassword(replica.getPassword());
+            }
+            dataSource.setPoolName("replica-" + replicas.size());
+            dataSource.setReadOnly(true);
+            replicas.add(dataSource);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, meterRegistry);
+    }
+
+    /**
+     * Defers the physical connection until the first statement, when the transaction's read-only flag is set
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
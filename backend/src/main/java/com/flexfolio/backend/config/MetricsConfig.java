@@ -0,0 +1,45 @@
+package com.flexfolio.backend.config;
+
+import com.flexfolio.backend.security.VerifiedTokenCache;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Metrics Configuration
+ * Service timers (@Timed) and JWT cache counters.
+ * Connection-pool (hikaricp.*), HTTP (http.server.requests) and repository (spring.data.repository.invocations)
+ * metrics come from Spring Boot.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Enables @Timed on service classes (flexfolio.service{class, method})
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    /**
+     * Verified-token cache hit/miss counters and size
+     */
+    @Bean
+    public MeterBinder verifiedTokenCacheMetrics(VerifiedTokenCache cache) {
+        return registry -> {
+            FunctionCounter.builder("auth.jwt.cache.requests", cache, VerifiedTokenCache::getHitCount)
+                .tag("result", "hit")
+                .register(registry);
+            FunctionCounter.builder("auth.jwt.cache.requests", cache, VerifiedTokenCache::getMissCount)
+                .tag("result", "miss")
+                .register(registry);
+            Gauge.builder("auth.jwt.cache.size", cache, VerifiedTokenCache::size)
+                .register(registry);
+        };
+    }
+}
@@ -1,24 +1,36 @@
 package com.flexfolio.backend.config;
 
+import com.flexfolio.backend.security.BCryptCostCalibrator;
 import com.flexfolio.backend.security.JwtAuthenticationFilter;
+import com.flexfolio.backend.security.OwnershipAuthorization;
+import com.flexfolio.backend.security.RateLimitFilter;
+import com.flexfolio.backend.security.TimedPasswordEncoder;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
+import java.util.Map;
 
 /**
  * Spring Security Configuration
@@ -28,12 +40,51 @@ import java.util.Arrays;
 @EnableWebSecurity
 public class SecurityConfig {
 
+    /**
+     * Scheme tag of stored password hashes: {bcrypt}$2a$<cost>$...
+     */
+    private static final String BCRYPT = "bcrypt";
+
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
+    @Autowired
+    private OwnershipAuthorization ownership;
+
+    @Value("${security.password-hashing.strength:0}")
+    private int bcryptStrength;
+
+    @Value("${security.password-hashing.target-ms:50}")
+    private long bcryptTargetMs;
+
+    @Value("${security.password-hashing.min-strength:10}")
+    private int bcryptMinStrength;
+
+    @Value("${security.password-hashing.max-strength:14}")
+    private int bcryptMaxStrength;
+
+    /**
+     * Delegating encoder: new hashes are tagged {bcrypt} at the cost calibrated for this machine (or the fixed
+     * strength when configured). Untagged hashes from before the tag are still verified as plain BCrypt. Hashes
+     * that are untagged or below the current cost report upgradeEncoding, and are rehashed on the next login.
+     * Each encode/matches call is timed as {@code auth.password.hash}.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        int strength = bcryptStrength > 0
+            ? bcryptStrength
+            : BCryptCostCalibrator.calibrate(bcryptTargetMs, bcryptMinStrength, bcryptMaxStrength);
+        Gauge.builder("auth.password.bcrypt.strength", () -> strength)
+            .description("BCrypt cost used for new password hashes")
+            .register(meterRegistry);
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(BCRYPT,
+            Map.of(BCRYPT, new BCryptPasswordEncoder(strength)));
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return new TimedPasswordEncoder(encoder, meterRegistry);
     }
 
     @Bean
@@ -47,35 +98,63 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .sessionManagement(sessionManagement -> sessionManagement.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            // Missing or expired token: 401, which the frontend answers by refreshing (403 stays for denied access)
+            .exceptionHandling(exceptions -> exceptions.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
             .authorizeHttpRequests(authorize -> authorize
+                    // Async dispatches (streamed responses) were authorized on the original request
+                    .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                     // Public endpoints - no authentication required
                     .requestMatchers(HttpMethod.POST, "/api/auth/**").permitAll()
                     .requestMatchers(HttpMethod.POST, "/api/auth/validate").permitAll()
 
+                    // Monitoring endpoints - scraped by Prometheus
+                    .requestMatchers(HttpMethod.GET, "/actuator/health", "/actuator/prometheus").permitAll()
+                    // Maintenance endpoints are operator tasks (JMX), never reachable through the public API
+                    .requestMatchers("/actuator/**").denyAll()
+
                     // Protected endpoints - require authentication
                     .requestMatchers(HttpMethod.GET, "/api/users/**").authenticated()
                     .requestMatchers(HttpMethod.PUT, "/api/users/**").authenticated()
                     .requestMatchers(HttpMethod.DELETE, "/api/users/**").authenticated()
 
+                    // Owned resources - the token's user must own the portfolio (resolved from the in-memory ownership index)
+                    .requestMatchers(HttpMethod.POST, "/api/portfolios/{userId}").access(ownership.isUser("userId"))
+                    .requestMatchers(HttpMethod.GET, "/api/portfolios/user/{userId}").access(ownership.isUser("userId"))
+                    .requestMatchers(HttpMethod.PUT, "/api/portfolios/{id}").access(ownership.ownsPortfolio("id"))
+                    .requestMatchers(HttpMethod.DELETE, "/api/portfolios/{id}").access(ownership.ownsPortfolio("id"))
                     .requestMatchers(HttpMethod.POST, "/api/portfolios/**").authenticated()
                     .requestMatchers(HttpMethod.GET, "/api/portfolios/**").authenticated()
-                    .requestMatchers(HttpMethod.PUT, "/api/portfolios/**").authenticated()
-                    .requestMatchers(HttpMethod.DELETE, "/api/portfolios/**").authenticated()
-
-                    .requestMatchers(HttpMethod.POST, "/api/experiences/**").authenticated()
-                    .requestMatchers(HttpMethod.GET, "/api/experiences/**").authenticated()
-                    .requestMatchers(HttpMethod.PUT, "/api/experiences/**").authenticated()
-                    .requestMatchers(HttpMethod.DELETE, "/api/experiences/**").authenticated()
 
-                    .requestMatchers(HttpMethod.POST, "/api/educations/**").authenticated()
-                    .requestMatchers(HttpMethod.GET, "/api/educations/**").authenticated()
-                    .requestMatchers(HttpMethod.PUT, "/api/educations/**").authenticated()
-                    .requestMatchers(HttpMethod.DELETE, "/api/educations/**").authenticated()
+                    .requestMatchers(HttpMethod.POST, "/api/experiences/{portfolioId}", "/api/experiences/{portfolioId}/bulk")
+                        .access(ownership.ownsPortfolio("portfolioId"))
+                    .requestMatchers(HttpMethod.GET, "/api/experiences/portfolio/{portfolioId}").access(ownership.ownsPortfolio("portfolioId"))
+                    .requestMatchers(HttpMethod.GET, "/api/experiences").authenticated()
+                    .requestMatchers(HttpMethod.GET, "/api/experiences/{id}").access(ownership.ownsExperience("id"))
+                    .requestMatchers(HttpMethod.PUT, "/api/experiences/{id}").access(ownership.ownsExperience("id"))
+                    .requestMatchers(HttpMethod.PATCH, "/api/experiences/{id}").access(ownership.ownsExperience("id"))
+                    .requestMatchers(HttpMethod.DELETE, "/api/experiences/{id}").access(ownership.ownsExperience("id"))
+
+                    .requestMatchers(HttpMethod.POST, "/api/educations/{portfolioId}", "/api/educations/{portfolioId}/bulk")
+                        .access(ownership.ownsPortfolio("portfolioId"))
+                    .requestMatchers(HttpMethod.GET, "/api/educations/portfolio/{portfolioId}").access(ownership.ownsPortfolio("portfolioId"))
+                    .requestMatchers(HttpMethod.GET, "/api/educations").authenticated()
+                    .requestMatchers(HttpMethod.GET, "/api/educations/{id}").access(ownership.ownsEducation("id"))
+                    .requestMatchers(HttpMethod.PUT, "/api/educations/{id}").access(ownership.ownsEducation("id"))
+                    .requestMatchers(HttpMethod.PATCH, "/api/educations/{id}").access(ownership.ownsEducation("id"))
+                    .requestMatchers(HttpMethod.DELETE, "/api/educations/{id}").access(ownership.ownsEducation("id"))
+
+                    .requestMatchers(HttpMethod.GET, "/api/search").authenticated()
+                    .requestMatchers(HttpMethod.POST, "/api/search/reindex").authenticated()
+
+                    .requestMatchers(HttpMethod.GET, "/api/changes/stream").authenticated()
 
                     // All other requests require authentication
                     .anyRequest().authenticated()
             )
-            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            // Route groups and limits: security.rate-limit in application.yml
+            .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -84,9 +163,10 @@ public class SecurityConfig {
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(Arrays.asList("http://localhost:3000"));
-        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
-        configuration.setExposedHeaders(Arrays.asList("Authorization"));
+        configuration.setExposedHeaders(Arrays.asList("Authorization", "ETag", "Retry-After",
+            RateLimitFilter.LIMIT_HEADER, RateLimitFilter.REMAINING_HEADER, RateLimitFilter.RESET_HEADER));
         configuration.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -2,15 +2,24 @@ package com.flexfolio.backend.controller;
 
 import com.flexfolio.backend.dto.LoginRequestDto;
 import com.flexfolio.backend.dto.JwtResponseDto;
+import com.flexfolio.backend.dto.RefreshRequestDto;
 import com.flexfolio.backend.dto.UserDto;
 import com.flexfolio.backend.mapper.EntityMapper;
 import com.flexfolio.backend.model.UserEntity;
+import com.flexfolio.backend.security.EmailAlreadyRegisteredException;
+import com.flexfolio.backend.security.JwtPrincipal;
+import com.flexfolio.backend.security.PasswordHashingRejectedException;
 import com.flexfolio.backend.service.AuthenticationService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 /**
  * Authentication Controller
  * Handles user login, registration, and JWT token management
@@ -30,27 +39,58 @@ public class AuthenticationController {
      * User login - returns JWT token
      */
     @PostMapping("/login")
-    public ResponseEntity<JwtResponseDto> login(@RequestBody LoginRequestDto loginRequest) {
-        try {
-            JwtResponseDto response = authenticationService.login(loginRequest);
-            return new ResponseEntity<>(response, HttpStatus.OK);
-        } catch (Exception e) {
-            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
-        }
+    public CompletableFuture<ResponseEntity<JwtResponseDto>> login(@RequestBody LoginRequestDto loginRequest) {
+        return authenticationService.login(loginRequest)
+            .thenApply(response -> new ResponseEntity<>(response, HttpStatus.OK))
+            .exceptionally(e -> {
+                if (unwrap(e) instanceof PasswordHashingRejectedException rejected) {
+                    return serviceUnavailable(rejected);
+                }
+                return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+            });
     }
 
     /**
-     * User registration
+     * User registration; 409 when the email is already registered
      */
     @PostMapping("/register")
-    public ResponseEntity<UserDto> register(@RequestBody UserEntity user) {
-        try {
-            UserEntity registeredUser = authenticationService.register(user);
-            UserDto userDto = entityMapper.toUserDto(registeredUser);
-            return new ResponseEntity<>(userDto, HttpStatus.CREATED);
-        } catch (RuntimeException e) {
-            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+    public CompletableFuture<ResponseEntity<UserDto>> register(@RequestBody UserEntity user) {
+        return authenticationService.register(user)
+            .thenApply(registeredUser -> new ResponseEntity<>(entityMapper.toUserDto(registeredUser), HttpStatus.CREATED))
+            .exceptionally(e -> {
+                Throwable cause = unwrap(e);
+                if (cause instanceof EmailAlreadyRegisteredException) {
+                    return new ResponseEntity<>(HttpStatus.CONFLICT);
+                }
+                if (cause instanceof PasswordHashingRejectedException rejected) {
+                    return serviceUnavailable(rejected);
+                }
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+            });
+    }
+
+    /**
+     * Exchange a refresh token for a new access token and the next refresh token
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<JwtResponseDto> refresh(@RequestBody RefreshRequestDto request) {
+        return authenticationService.refresh(request.getRefreshToken(), request.getAccessToken())
+            .map(response -> new ResponseEntity<>(response, HttpStatus.OK))
+            .orElse(new ResponseEntity<>(HttpStatus.UNAUTHORIZED));
+    }
+
+    /**
+     * Logout: revoke the bearer token of this request and, when given, the refresh token
+     */
+    @PostMapping("/revoke")
+    public ResponseEntity<Void> revoke(@AuthenticationPrincipal JwtPrincipal principal,
+            @RequestBody(required = false) RefreshRequestDto request) {
+        String refreshToken = request != null ? request.getRefreshToken() : null;
+        if (principal == null && refreshToken == null) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
         }
+        authenticationService.revoke(principal, refreshToken);
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
     /**
@@ -66,5 +106,21 @@ public class AuthenticationController {
             return new ResponseEntity<>(false, HttpStatus.BAD_REQUEST);
         }
     }
+
+    /**
+     * The exception a failed future stage was completed with
+     */
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
+    /**
+     * 503 with Retry-After when the password hashing pool is saturated
+     */
+    private <T> ResponseEntity<T> serviceUnavailable(PasswordHashingRejectedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+            .build();
+    }
 }
 
@@ -0,0 +1,32 @@
+package com.flexfolio.backend.controller;
+
+import com.flexfolio.backend.security.JwtPrincipal;
+import com.flexfolio.backend.service.ChangeFeedService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/changes")
+@CrossOrigin(origins = "http://localhost:3000")
+public class ChangeFeedController {
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    /**
+     * Stream of "change" events for the authenticated user's portfolios (text/event-stream)
+     * The user id comes from the token; no user lookup is made.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(@AuthenticationPrincipal JwtPrincipal principal) {
+        if (principal == null || principal.getUserId() == null) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+        return new ResponseEntity<>(changeFeedService.subscribe(principal.getUserId()), HttpStatus.OK);
+    }
+}
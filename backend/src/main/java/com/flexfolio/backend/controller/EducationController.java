@@ -1,7 +1,9 @@
 package com.flexfolio.backend.controller;
 
+import com.flexfolio.backend.dto.CursorPageDto;
 import com.flexfolio.backend.dto.EducationDto;
 import com.flexfolio.backend.model.EducationEntity;
+import com.flexfolio.backend.pagination.Cursor;
 import com.flexfolio.backend.service.EducationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -31,6 +33,19 @@ public class EducationController {
         }
     }
 
+    /**
+     * Create several educations for a portfolio in one request
+     */
+    @PostMapping("/{portfolioId}/bulk")
+    public ResponseEntity<List<EducationDto>> createEducations(@PathVariable Long portfolioId, @RequestBody List<EducationEntity> educations) {
+        try {
+            List<EducationDto> createdEducations = educationService.createEducations(educations, portfolioId);
+            return new ResponseEntity<>(createdEducations, HttpStatus.CREATED);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
     /**
      * Get education by ID
      */
@@ -51,12 +66,17 @@ public class EducationController {
     }
 
     /**
-     * Get all educations
+     * Get all educations, one keyset page at a time
      */
     @GetMapping
-    public ResponseEntity<List<EducationDto>> getAllEducations() {
-        List<EducationDto> educations = educationService.getAllEducations();
-        return new ResponseEntity<>(educations, HttpStatus.OK);
+    public ResponseEntity<CursorPageDto<EducationDto>> getAllEducations(@RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + Cursor.DEFAULT_LIMIT) int limit) {
+        try {
+            CursorPageDto<EducationDto> educations = educationService.getAllEducations(cursor, limit);
+            return new ResponseEntity<>(educations, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
     }
 
     /**
@@ -72,6 +92,19 @@ public class EducationController {
         }
     }
 
+    /**
+     * Partially update education (only the supplied fields), without returning it
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> patchEducation(@PathVariable Long id, @RequestBody EducationEntity educationDetails) {
+        try {
+            educationService.patchEducation(id, educationDetails);
+            return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
     /**
      * Delete education
      */
@@ -1,7 +1,9 @@
 package com.flexfolio.backend.controller;
 
+import com.flexfolio.backend.dto.CursorPageDto;
 import com.flexfolio.backend.dto.ExperienceDto;
 import com.flexfolio.backend.model.ExperienceEntity;
+import com.flexfolio.backend.pagination.Cursor;
 import com.flexfolio.backend.service.ExperienceService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -31,6 +33,19 @@ public class ExperienceController {
         }
     }
 
+    /**
+     * Create several experiences for a portfolio in one request
+     */
+    @PostMapping("/{portfolioId}/bulk")
+    public ResponseEntity<List<ExperienceDto>> createExperiences(@PathVariable Long portfolioId, @RequestBody List<ExperienceEntity> experiences) {
+        try {
+            List<ExperienceDto> createdExperiences = experienceService.createExperiences(experiences, portfolioId);
+            return new ResponseEntity<>(createdExperiences, HttpStatus.CREATED);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
     /**
      * Get experience by ID
      */
@@ -51,12 +66,17 @@ public class ExperienceController {
     }
 
     /**
-     * Get all experiences
+     * Get all experiences, one keyset page at a time
      */
     @GetMapping
-    public ResponseEntity<List<ExperienceDto>> getAllExperiences() {
-        List<ExperienceDto> experiences = experienceService.getAllExperiences();
-        return new ResponseEntity<>(experiences, HttpStatus.OK);
+    public ResponseEntity<CursorPageDto<ExperienceDto>> getAllExperiences(@RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + Cursor.DEFAULT_LIMIT) int limit) {
+        try {
+            CursorPageDto<ExperienceDto> experiences = experienceService.getAllExperiences(cursor, limit);
+            return new ResponseEntity<>(experiences, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
     }
 
     /**
@@ -72,6 +92,19 @@ public class ExperienceController {
         }
     }
 
+    /**
+     * Partially update experience (only the supplied fields), without returning it
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> patchExperience(@PathVariable Long id, @RequestBody ExperienceEntity experienceDetails) {
+        try {
+            experienceService.patchExperience(id, experienceDetails);
+            return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
     /**
      * Delete experience
      */
@@ -1,12 +1,22 @@
 package com.flexfolio.backend.controller;
 
+import com.flexfolio.backend.config.BinaryFormatsConfig;
+import com.flexfolio.backend.dto.CursorPageDto;
 import com.flexfolio.backend.dto.PortfolioDto;
+import com.flexfolio.backend.model.PortfolioDocumentEntity;
 import com.flexfolio.backend.model.PortfolioEntity;
+import com.flexfolio.backend.pagination.Cursor;
+import com.flexfolio.backend.service.PortfolioDocumentService;
+import com.flexfolio.backend.service.PortfolioExportService;
 import com.flexfolio.backend.service.PortfolioService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -18,6 +28,14 @@ public class PortfolioController {
     @Autowired
     private PortfolioService portfolioService;
 
+    @Autowired
+    private PortfolioExportService portfolioExportService;
+
+    @Autowired
+    private PortfolioDocumentService portfolioDocumentService;
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     /**
      * Create a new portfolio for a user
      */
@@ -33,30 +51,68 @@ public class PortfolioController {
 
     /**
      * Get portfolio by ID
+     * Served from the materialized document: one primary-key read returns the version (for If-None-Match) and the ready-made JSON.
+     * CBOR and Smile are transcoded from that JSON when the Accept header asks for them.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<PortfolioDto> getPortfolioById(@PathVariable Long id) {
-        return portfolioService.getPortfolioById(id)
-            .map(portfolio -> new ResponseEntity<>(portfolio, HttpStatus.OK))
-            .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    public ResponseEntity<byte[]> getPortfolioById(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept, WebRequest request) {
+        MediaType format = BinaryFormatsConfig.negotiate(accept);
+        if (format == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_ACCEPTABLE);
+        }
+        PortfolioDocumentEntity document = portfolioDocumentService.getDocument(id).orElse(null);
+        if (document == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        String etag = PortfolioService.portfolioETag(id, document.getVersion()) + BinaryFormatsConfig.eTagSuffix(format);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        return ResponseEntity.ok()
+            .eTag(etag)
+            .varyBy(HttpHeaders.ACCEPT)
+            .contentType(format)
+            .body(portfolioDocumentService.encode(document, format));
     }
 
     /**
      * Get all portfolios for a user
+     * Answers If-None-Match with 304 from the portfolio ids and versions alone.
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<PortfolioDto>> getPortfoliosByUserId(@PathVariable Long userId) {
+    public ResponseEntity<List<PortfolioDto>> getPortfoliosByUserId(@PathVariable Long userId,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept, WebRequest request) {
+        MediaType format = BinaryFormatsConfig.negotiate(accept);
+        String etag = portfolioService.getPortfoliosETagByUserId(userId) + BinaryFormatsConfig.eTagSuffix(format);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+        }
         List<PortfolioDto> portfolios = portfolioService.getPortfoliosByUserId(userId);
-        return new ResponseEntity<>(portfolios, HttpStatus.OK);
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(portfolios);
     }
 
     /**
-     * Get all portfolios
+     * Get all portfolios, one keyset page at a time
      */
     @GetMapping
-    public ResponseEntity<List<PortfolioDto>> getAllPortfolios() {
-        List<PortfolioDto> portfolios = portfolioService.getAllPortfolios();
-        return new ResponseEntity<>(portfolios, HttpStatus.OK);
+    public ResponseEntity<CursorPageDto<PortfolioDto>> getAllPortfolios(@RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + Cursor.DEFAULT_LIMIT) int limit) {
+        try {
+            CursorPageDto<PortfolioDto> portfolios = portfolioService.getAllPortfolios(cursor, limit);
+            return new ResponseEntity<>(portfolios, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Export all portfolios with their experiences and educations as newline-delimited JSON
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportPortfolios() {
+        StreamingResponseBody body = portfolioExportService::exportPortfolios;
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
     }
 
     /**
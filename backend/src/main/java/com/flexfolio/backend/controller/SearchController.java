@@ -0,0 +1,34 @@
+package com.flexfolio.backend.controller;
+
+import com.flexfolio.backend.dto.CursorPageDto;
+import com.flexfolio.backend.dto.SearchResultDto;
+import com.flexfolio.backend.pagination.Cursor;
+import com.flexfolio.backend.service.SearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/search")
+@CrossOrigin(origins = "http://localhost:3000")
+public class SearchController {
+
+    @Autowired
+    private SearchService searchService;
+
+    /**
+     * Full-text search over experiences and educations, best matches first, one page at a time
+     */
+    @GetMapping
+    public ResponseEntity<CursorPageDto<SearchResultDto>> search(@RequestParam("q") String query,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + Cursor.DEFAULT_LIMIT) int limit) {
+        try {
+            CursorPageDto<SearchResultDto> results = searchService.search(query, cursor, limit);
+            return new ResponseEntity<>(results, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+}
@@ -1,15 +1,15 @@
 package com.flexfolio.backend.controller;
 
+import com.flexfolio.backend.dto.CursorPageDto;
 import com.flexfolio.backend.dto.UserDto;
 import com.flexfolio.backend.model.UserEntity;
+import com.flexfolio.backend.pagination.Cursor;
 import com.flexfolio.backend.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/users")
 @CrossOrigin(origins = "http://localhost:3000")
@@ -30,12 +30,17 @@ public class UserController {
     }
 
     /**
-     * Get all users
+     * Get all users, one keyset page at a time
      */
     @GetMapping
-    public ResponseEntity<List<UserDto>> getAllUsers() {
-        List<UserDto> users = userService.getAllUsers();
-        return new ResponseEntity<>(users, HttpStatus.OK);
+    public ResponseEntity<CursorPageDto<UserDto>> getAllUsers(@RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + Cursor.DEFAULT_LIMIT) int limit) {
+        try {
+            CursorPageDto<UserDto> users = userService.getAllUsers(cursor, limit);
+            return new ResponseEntity<>(users, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
     }
 
     /**
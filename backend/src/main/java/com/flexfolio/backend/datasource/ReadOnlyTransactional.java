@@ -0,0 +1,21 @@
+package com.flexfolio.backend.datasource;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Read-only transaction, routed to a read replica when one is configured
+ * The services use {@code jakarta.transaction.Transactional} for writes; that annotation has no read-only flag,
+ * so read paths are marked with this one instead (see ReplicaRoutingDataSource).
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Transactional(readOnly = true)
+public @interface ReadOnlyTransactional {
+}
@@ -0,0 +1,24 @@
+package com.flexfolio.backend.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas ({@code flexfolio.datasource.replicas}); pool settings are copied from the primary
+ */
+@Data
+@ConfigurationProperties("flexfolio.datasource")
+public class ReplicaDataSourceProperties {
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
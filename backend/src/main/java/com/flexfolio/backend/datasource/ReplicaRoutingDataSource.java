@@ -0,0 +1,100 @@
+package com.flexfolio.backend.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to the replicas (round robin) and everything else to the primary
+ * Must sit behind a LazyConnectionDataSourceProxy so the physical connection is chosen once the
+ * transaction's read-only flag is known. Once a request has opened a read-write transaction, its later
+ * reads stay on the primary so they see their own writes despite replication lag.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private static final String PRIMARY = "primary";
+
+    private static final String PINNED_TO_PRIMARY = ReplicaRoutingDataSource.class.getName() + ".PINNED_TO_PRIMARY";
+
+    private final List<DataSource> replicas;
+
+    private final List<String> replicaKeys;
+
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    private final Counter primaryConnections;
+
+    private final Counter replicaConnections;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, MeterRegistry meterRegistry) {
+        this.replicas = replicas;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        this.replicaKeys = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            String key = "replica-" + i;
+            targets.put(key, replicas.get(i));
+            replicaKeys.add(key);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        this.primaryConnections = connectionCounter(meterRegistry, "primary");
+        this.replicaConnections = connectionCounter(meterRegistry, "replica");
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                pinToPrimary();
+            }
+            primaryConnections.increment();
+            return PRIMARY;
+        }
+        if (replicaKeys.isEmpty() || isPinnedToPrimary()) {
+            primaryConnections.increment();
+            return PRIMARY;
+        }
+        replicaConnections.increment();
+        return replicaKeys.get(Math.floorMod(nextReplica.getAndIncrement(), replicaKeys.size()));
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (DataSource replica : replicas) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static void pinToPrimary() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.setAttribute(PINNED_TO_PRIMARY, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    private static boolean isPinnedToPrimary() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        return request != null && request.getAttribute(PINNED_TO_PRIMARY, RequestAttributes.SCOPE_REQUEST) != null;
+    }
+
+    private static Counter connectionCounter(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("flexfolio.datasource.connections")
+            .description("Physical connections handed out by the routing datasource")
+            .tag("target", target)
+            .register(meterRegistry);
+    }
+}
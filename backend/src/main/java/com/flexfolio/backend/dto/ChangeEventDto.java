@@ -0,0 +1,29 @@
+package com.flexfolio.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One committed change pushed on the change feed.
+ * {@code version} is the portfolio version after the change (null when the portfolio itself was deleted).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeEventDto {
+
+    public static final String PORTFOLIO = "PORTFOLIO";
+    public static final String EXPERIENCE = "EXPERIENCE";
+    public static final String EDUCATION = "EDUCATION";
+
+    public static final String CREATED = "CREATED";
+    public static final String UPDATED = "UPDATED";
+    public static final String DELETED = "DELETED";
+
+    private String type;
+    private Long id;
+    private Long portfolioId;
+    private String operation;
+    private Long version;
+}
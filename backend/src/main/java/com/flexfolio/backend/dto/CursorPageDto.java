@@ -0,0 +1,18 @@
+package com.flexfolio.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated list.
+ * {@code next} is an opaque cursor for the following page, or null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDto<T> {
+    private List<T> items;
+    private String next;
+}
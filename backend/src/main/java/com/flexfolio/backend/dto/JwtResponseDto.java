@@ -5,7 +5,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 /**
- * JWT Response DTO - sent after successful login
+ * JWT Response DTO - sent after successful login or refresh
+ * expiresIn is the access token lifetime and refreshExpiresIn the refresh token lifetime, in seconds.
  */
 @Data
 @NoArgsConstructor
@@ -16,6 +17,8 @@ public class JwtResponseDto {
     private Long userId;
     private String email;
     private Long expiresIn;
+    private String refreshToken;
+    private Long refreshExpiresIn;
 
     public JwtResponseDto(String accessToken, Long userId, String email, Long expiresIn) {
         this.accessToken = accessToken;
@@ -23,5 +26,12 @@ public class JwtResponseDto {
         this.email = email;
         this.expiresIn = expiresIn;
     }
+
+    public JwtResponseDto(String accessToken, Long userId, String email, Long expiresIn,
+                          String refreshToken, Long refreshExpiresIn) {
+        this(accessToken, userId, email, expiresIn);
+        this.refreshToken = refreshToken;
+        this.refreshExpiresIn = refreshExpiresIn;
+    }
 }
 
@@ -3,6 +3,7 @@ package com.flexfolio.backend.dto;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import java.util.ArrayList;
 import java.util.List;
 
 @Data
@@ -11,7 +12,16 @@ import java.util.List;
 public class PortfolioDto {
     private Long id;
     private Long userId;
+    private Long version;
     private List<ExperienceDto> experiences;
     private List<EducationDto> educations;
+
+    public PortfolioDto(Long id, Long userId, Long version) {
+        this.id = id;
+        this.userId = userId;
+        this.version = version;
+        this.experiences = new ArrayList<>();
+        this.educations = new ArrayList<>();
+    }
 }
 
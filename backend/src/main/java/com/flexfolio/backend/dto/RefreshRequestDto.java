@@ -0,0 +1,17 @@
+package com.flexfolio.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Refresh request DTO - the opaque refresh token from the last login or refresh, and the access token issued with
+ * it (may be expired); the latter is only needed to repeat an exchange within the reuse grace window
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshRequestDto {
+    private String refreshToken;
+    private String accessToken;
+}
@@ -0,0 +1,21 @@
+package com.flexfolio.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One full-text search hit: an experience (title = position, subtitle = employer)
+ * or an education (title = qualification, subtitle = training)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResultDto {
+    private String type;
+    private Long id;
+    private Long portfolioId;
+    private String title;
+    private String subtitle;
+    private Float rank;
+}
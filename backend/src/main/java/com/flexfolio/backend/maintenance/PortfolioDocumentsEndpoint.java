@@ -0,0 +1,37 @@
+package com.flexfolio.backend.maintenance;
+
+import com.flexfolio.backend.service.PortfolioDocumentService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Operator task: repair the materialized portfolio documents from the relational tables
+ * An actuator endpoint, exposed over JMX only (see management.endpoints.jmx.exposure), never on the public API.
+ */
+@Component
+@Endpoint(id = "portfoliodocuments")
+@RequiredArgsConstructor
+public class PortfolioDocumentsEndpoint {
+
+    private final PortfolioDocumentService portfolioDocumentService;
+
+    /**
+     * Rebuild the document of one portfolio
+     * @return false if the portfolio does not exist
+     */
+    @WriteOperation
+    public boolean rebuild(Long portfolioId) {
+        return portfolioDocumentService.rebuild(portfolioId).isPresent();
+    }
+
+    /**
+     * Rebuild every document, one transaction per portfolio
+     * @return number of documents rebuilt
+     */
+    @WriteOperation
+    public int rebuildAll() {
+        return portfolioDocumentService.rebuildAll();
+    }
+}
@@ -0,0 +1,28 @@
+package com.flexfolio.backend.maintenance;
+
+import com.flexfolio.backend.service.SearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Operator task: rebuild the full-text search index from the experience and education tables
+ * Exposed over JMX only, like {@link PortfolioDocumentsEndpoint}.
+ */
+@Component
+@Endpoint(id = "searchindex")
+@RequiredArgsConstructor
+public class SearchIndexEndpoint {
+
+    private final SearchService searchService;
+
+    /**
+     * Rebuild the whole index
+     * @return number of entries indexed
+     */
+    @WriteOperation
+    public int reindex() {
+        return searchService.reindexAll();
+    }
+}
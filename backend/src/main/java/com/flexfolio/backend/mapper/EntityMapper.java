@@ -58,6 +58,7 @@ public class EntityMapper {
         return new PortfolioDto(
             portfolio.getId(),
             portfolio.getUser() != null ? portfolio.getUser().getId() : null,
+            portfolio.getVersion(),
             portfolio.getExperiences() != null ?
                 portfolio.getExperiences().stream()
                     .map(this::toExperienceDto)
@@ -4,17 +4,25 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDate;
 
 @Entity
 @Table(name = "Education")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "education")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class EducationEntity {
 
+    /**
+     * Pooled sequence ids (one sequence call per 50 rows) so inserts can be JDBC-batched
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "education_seq")
+    @SequenceGenerator(name = "education_seq", sequenceName = "education_seq", allocationSize = 50)
     private Long idEdu;
 
     @Column(nullable = false, length = 50)
@@ -38,7 +46,7 @@ public class EducationEntity {
     @Column
     private LocalDate endDate;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_portfolio", nullable = false)
     private PortfolioEntity portfolio;
 
@@ -4,17 +4,25 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDate;
 
 @Entity
 @Table(name = "Experience")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "experience")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class ExperienceEntity {
 
+    /**
+     * Pooled sequence ids (one sequence call per 50 rows) so inserts can be JDBC-batched
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "experience_seq")
+    @SequenceGenerator(name = "experience_seq", sequenceName = "experience_seq", allocationSize = 50)
     private Long idExp;
 
     @Column(name = "position_", nullable = false, length = 50)
@@ -41,7 +49,7 @@ public class ExperienceEntity {
     @Column
     private Boolean ongoing;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_portfolio", nullable = false)
     private PortfolioEntity portfolio;
 
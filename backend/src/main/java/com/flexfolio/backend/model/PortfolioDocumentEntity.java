@@ -0,0 +1,31 @@
+package com.flexfolio.backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Materialized read model of a portfolio: the serialized PortfolioDto, kept in step with the
+ * relational tables by the write services (see PortfolioDocumentService)
+ */
+@Entity
+@Table(name = "Portfolio_Document")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioDocumentEntity {
+
+    @Id
+    @Column(name = "portfolio_id")
+    private Long portfolioId;
+
+    /**
+     * Portfolio version the content was built from
+     */
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(nullable = false)
+    private byte[] content;
+}
@@ -4,15 +4,32 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import java.util.List;
 
 @Entity
 @Table(name = "Portfolio")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "portfolio")
+@NamedEntityGraph(name = PortfolioEntity.WITH_USER, attributeNodes = @NamedAttributeNode("user"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class PortfolioEntity {
 
+    /**
+     * Fetch plan joining the owner; collections are loaded in batches (see {@link BatchSize})
+     */
+    public static final String WITH_USER = "Portfolio.withUser";
+
+    /**
+     * Number of portfolios whose experiences/educations are initialized per query
+     */
+    public static final int COLLECTION_BATCH_SIZE = 100;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -21,10 +38,21 @@ public class PortfolioEntity {
     @JoinColumn(name = "user_id", nullable = false)
     private UserEntity user;
 
+    /**
+     * Moves forward on every change to the portfolio or any of its experiences/educations (see PortfolioService#markChanged)
+     */
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version = 0L;
+
     @OneToMany(mappedBy = "portfolio", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = PortfolioEntity.COLLECTION_BATCH_SIZE)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "portfolio-experiences")
     private List<ExperienceEntity> experiences;
 
     @OneToMany(mappedBy = "portfolio", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = PortfolioEntity.COLLECTION_BATCH_SIZE)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "portfolio-educations")
     private List<EducationEntity> educations;
 }
 
@@ -0,0 +1,73 @@
+package com.flexfolio.backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A refresh token, identified by the SHA-256 of its opaque value
+ * All tokens rotated from one login share a family id. The id is assigned, so the entity tells Spring Data
+ * whether it is new; otherwise save() would look the row up before inserting it.
+ */
+@Entity
+@Table(name = "Refresh_Token")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshTokenEntity implements Persistable<String> {
+
+    @Id
+    @Column(name = "token_hash", length = 64)
+    private String tokenHash;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    private UserEntity user;
+
+    @Column(name = "family_id", nullable = false)
+    private UUID familyId;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    /**
+     * Set when the token is exchanged; a token presented again after that is a reuse
+     */
+    @Column(name = "used_at")
+    private Instant usedAt;
+
+    /**
+     * Id (jti) of the access token issued together with this token; a client repeating an exchange within the
+     * reuse grace window proves with it that it is the one the token was issued to
+     */
+    @Column(name = "access_token_id", length = 36)
+    private String accessTokenId;
+
+    @Transient
+    private boolean persisted;
+
+    public RefreshTokenEntity(String tokenHash, UserEntity user, UUID familyId, Instant expiresAt, String accessTokenId) {
+        this(tokenHash, user, familyId, expiresAt, null, accessTokenId, false);
+    }
+
+    @Override
+    public String getId() {
+        return tokenHash;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+}
@@ -0,0 +1,35 @@
+package com.flexfolio.backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A revoked JWT, kept until the token would have expired anyway
+ */
+@Entity
+@Table(name = "Revoked_Token")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedTokenEntity {
+
+    /**
+     * The token's jti claim
+     */
+    @Id
+    @Column(length = 36)
+    private String jti;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(name = "revoked_at", nullable = false)
+    private Instant revokedAt;
+}
@@ -0,0 +1,69 @@
+package com.flexfolio.backend.pagination;
+
+import com.flexfolio.backend.dto.CursorPageDto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset pagination helpers.
+ * A cursor is the identity key of the last row of a page, base64url-encoded so that
+ * clients treat it as opaque. The next page seeks with {@code id > cursor ORDER BY id},
+ * so every page costs one index range scan regardless of depth.
+ */
+public final class Cursor {
+
+    public static final int DEFAULT_LIMIT = 50;
+
+    public static final int MAX_LIMIT = 200;
+
+    private static final String PREFIX = "k:";
+
+    private Cursor() {
+    }
+
+    /**
+     * Encode the identity key of the last row on a page
+     */
+    public static String encode(Long lastId) {
+        String raw = PREFIX + lastId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor into the key to seek after; a missing cursor starts from the beginning
+     */
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return Long.parseLong(raw.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+
+    /**
+     * Clamp a requested page size into [1, MAX_LIMIT]
+     */
+    public static int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    /**
+     * Build a page from rows fetched with {@code limit + 1}; the extra row only signals that a next page exists
+     */
+    public static <E, D> CursorPageDto<D> page(List<E> rows, int limit, Function<E, Long> idOf, Function<List<E>, List<D>> mapper) {
+        boolean hasNext = rows.size() > limit;
+        List<E> pageRows = hasNext ? rows.subList(0, limit) : rows;
+        String next = hasNext ? encode(idOf.apply(pageRows.get(pageRows.size() - 1))) : null;
+        return new CursorPageDto<>(mapper.apply(pageRows), next);
+    }
+}
@@ -1,11 +1,58 @@
 package com.flexfolio.backend.repository;
 
+import com.flexfolio.backend.dto.EducationDto;
 import com.flexfolio.backend.model.EducationEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface EducationRepository extends JpaRepository<EducationEntity, Long> {
-    List<EducationEntity> findByPortfolioId(Long id);
-}
\ No newline at end of file
+public interface EducationRepository extends JpaRepository<EducationEntity, Long>, EducationRepositoryCustom {
+
+    /**
+     * Constructor expression selecting exactly the EducationDto columns (no entity, no join to portfolio/user)
+     */
+    String SELECT_DTO = "select new com.flexfolio.backend.dto.EducationDto("
+        + "e.idEdu, e.titleOfQualification, e.training, e.city, e.country, e.startDate, e.endDate, e.ongoing, e.portfolio.id) ";
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(SELECT_DTO + "from EducationEntity e where e.portfolio.id = :portfolioId order by e.idEdu")
+    List<EducationDto> findDtosByPortfolioId(@Param("portfolioId") Long portfolioId);
+
+    @Query(SELECT_DTO + "from EducationEntity e where e.idEdu = :id")
+    Optional<EducationDto> findDtoById(@Param("id") Long id);
+
+    @Query(SELECT_DTO + "from EducationEntity e where e.idEdu > :after order by e.idEdu")
+    List<EducationDto> findDtosAfter(@Param("after") Long after, Limit limit);
+
+    /**
+     * Forward-only cursor over all educations as DTOs, ordered by portfolio so they can be merged into the portfolio export
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + PortfolioRepository.EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query(SELECT_DTO + "from EducationEntity e order by e.portfolio.id, e.idEdu")
+    Stream<EducationDto> streamAllForExport();
+
+    @Query("select e.portfolio.id from EducationEntity e where e.idEdu = :id")
+    Optional<Long> findPortfolioIdById(@Param("id") Long id);
+
+    /**
+     * Forward-only cursor over every education id and its portfolio's id
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + PortfolioRepository.EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select e.idEdu as id, e.portfolio.id as parentId from EducationEntity e")
+    Stream<ParentRef> streamPortfolioIds();
+}
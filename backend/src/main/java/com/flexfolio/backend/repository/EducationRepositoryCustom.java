@@ -0,0 +1,12 @@
+package com.flexfolio.backend.repository;
+
+import com.flexfolio.backend.model.EducationEntity;
+
+public interface EducationRepositoryCustom {
+
+    /**
+     * Update only the non-null fields of {@code details} with a single UPDATE
+     * @return number of rows matched (0 when the education does not exist in that portfolio)
+     */
+    int updateNonNullFields(Long id, Long portfolioId, EducationEntity details);
+}
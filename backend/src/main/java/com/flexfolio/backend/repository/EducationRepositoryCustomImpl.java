@@ -0,0 +1,23 @@
+package com.flexfolio.backend.repository;
+
+import com.flexfolio.backend.model.EducationEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+public class EducationRepositoryCustomImpl implements EducationRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int updateNonNullFields(Long id, Long portfolioId, EducationEntity details) {
+        return new PartialUpdate(entityManager, EducationEntity.class, "education")
+            .set("title_of_qualification", details.getTitleOfQualification())
+            .set("training", details.getTraining())
+            .set("city", details.getCity())
+            .set("country", details.getCountry())
+            .set("start_date", details.getStartDate())
+            .setOngoingAndEndDate(details.getOngoing(), details.getEndDate())
+            .execute("id_edu", id, "id_portfolio", portfolioId);
+    }
+}
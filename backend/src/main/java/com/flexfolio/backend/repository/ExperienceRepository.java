@@ -1,12 +1,58 @@
 package com.flexfolio.backend.repository;
 
+import com.flexfolio.backend.dto.ExperienceDto;
 import com.flexfolio.backend.model.ExperienceEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ExperienceRepository extends JpaRepository<ExperienceEntity, Long> {
-    List<ExperienceEntity> findByPortfolioId(Long id);
-}
+public interface ExperienceRepository extends JpaRepository<ExperienceEntity, Long>, ExperienceRepositoryCustom {
+
+    /**
+     * Constructor expression selecting exactly the ExperienceDto columns (no entity, no join to portfolio/user)
+     */
+    String SELECT_DTO = "select new com.flexfolio.backend.dto.ExperienceDto("
+        + "e.idExp, e.position, e.employer, e.city, e.country, e.startDate, e.endDate, e.responsibilities, e.ongoing, e.portfolio.id) ";
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(SELECT_DTO + "from ExperienceEntity e where e.portfolio.id = :portfolioId order by e.idExp")
+    List<ExperienceDto> findDtosByPortfolioId(@Param("portfolioId") Long portfolioId);
+
+    @Query(SELECT_DTO + "from ExperienceEntity e where e.idExp = :id")
+    Optional<ExperienceDto> findDtoById(@Param("id") Long id);
 
+    @Query(SELECT_DTO + "from ExperienceEntity e where e.idExp > :after order by e.idExp")
+    List<ExperienceDto> findDtosAfter(@Param("after") Long after, Limit limit);
+
+    /**
+     * Forward-only cursor over all experiences as DTOs, ordered by portfolio so they can be merged into the portfolio export
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + PortfolioRepository.EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query(SELECT_DTO + "from ExperienceEntity e order by e.portfolio.id, e.idExp")
+    Stream<ExperienceDto> streamAllForExport();
+
+    @Query("select e.portfolio.id from ExperienceEntity e where e.idExp = :id")
+    Optional<Long> findPortfolioIdById(@Param("id") Long id);
+
+    /**
+     * Forward-only cursor over every experience id and its portfolio's id
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + PortfolioRepository.EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select e.idExp as id, e.portfolio.id as parentId from ExperienceEntity e")
+    Stream<ParentRef> streamPortfolioIds();
+}
@@ -0,0 +1,24 @@
+package com.flexfolio.backend.repository;
+
+import com.flexfolio.backend.model.ExperienceEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+public class ExperienceRepositoryCustomImpl implements ExperienceRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int updateNonNullFields(Long id, Long portfolioId, ExperienceEntity details) {
+        return new PartialUpdate(entityManager, ExperienceEntity.class, "experience")
+            .set("position_", details.getPosition())
+            .set("employer", details.getEmployer())
+            .set("city", details.getCity())
+            .set("country", details.getCountry())
+            .set("start_date", details.getStartDate())
+            .set("responsibilities", details.getResponsibilities())
+            .setOngoingAndEndDate(details.getOngoing(), details.getEndDate())
+            .execute("id_exp", id, "id_portfolio", portfolioId);
+    }
+}
@@ -0,0 +1,10 @@
+package com.flexfolio.backend.repository;
+
+/**
+ * Projection of an entity's id and the id of the row that owns it (portfolio owner, experience/education portfolio)
+ */
+public interface ParentRef {
+    Long getId();
+
+    Long getParentId();
+}
@@ -0,0 +1,112 @@
+package com.flexfolio.backend.repository;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.query.NativeQuery;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds a single UPDATE that only touches the supplied (non-null) columns of one row
+ * Used by the read-free patch paths; the row is never loaded into the persistence context.
+ * A JPQL or criteria bulk update would make Hibernate evict the entity's whole second-level cache region, so the
+ * statement is native and synchronized on no cached table. The cache is then maintained as for an entity update:
+ * the row's own entry is evicted and the table's cached query results are invalidated, nothing else.
+ */
+final class PartialUpdate {
+
+    /**
+     * Query space no entity or collection maps to, so the statement evicts no cache region by itself
+     */
+    private static final String UNCACHED_SPACE = "partial_update";
+
+    private final EntityManager entityManager;
+    private final Class<?> entityClass;
+    private final String table;
+    private final List<String> assignments = new ArrayList<>();
+    private final List<Object> values = new ArrayList<>();
+
+    PartialUpdate(EntityManager entityManager, Class<?> entityClass, String table) {
+        this.entityManager = entityManager;
+        this.entityClass = entityClass;
+        this.table = table;
+    }
+
+    /**
+     * Set a column if a value was supplied
+     */
+    PartialUpdate set(String column, Object value) {
+        if (value != null) {
+            values.add(value);
+            assignments.add(column + " = ?" + values.size());
+        }
+        return this;
+    }
+
+    /**
+     * Apply the ongoing/endDate rule of validateOngoing(): an ongoing entry never has an end date.
+     * When only endDate is supplied, the row's current ongoing flag decides inside the UPDATE itself.
+     */
+    PartialUpdate setOngoingAndEndDate(Boolean ongoing, LocalDate endDate) {
+        if (Boolean.TRUE.equals(ongoing)) {
+            set("ongoing", true);
+            assignments.add("end_date = null");
+        } else if (Boolean.FALSE.equals(ongoing)) {
+            set("ongoing", false);
+            set("end_date", endDate);
+        } else if (endDate != null) {
+            values.add(endDate);
+            assignments.add("end_date = case when ongoing then null else ?" + values.size() + " end");
+        }
+        return this;
+    }
+
+    /**
+     * Execute against the row with the given id in the given parent, and return the number of rows matched
+     */
+    int execute(String idColumn, Long id, String parentColumn, Long parentId) {
+        String where = " where " + idColumn + " = ?" + (values.size() + 1) + " and " + parentColumn + " = ?" + (values.size() + 2);
+        String sql = assignments.isEmpty()
+            ? "select count(*) from " + table + where
+            : "update " + table + " set " + String.join(", ", assignments) + where;
+        NativeQuery<?> query = entityManager.createNativeQuery(sql).unwrap(NativeQuery.class);
+        for (int i = 0; i < values.size(); i++) {
+            query.setParameter(i + 1, values.get(i));
+        }
+        query.setParameter(values.size() + 1, id);
+        query.setParameter(values.size() + 2, parentId);
+        if (assignments.isEmpty()) {
+            return ((Number) query.getSingleResult()).intValue();
+        }
+        query.addSynchronizedQuerySpace(UNCACHED_SPACE);
+        int updated = query.executeUpdate();
+        if (updated > 0) {
+            invalidateCachedRow(id);
+        }
+        return updated;
+    }
+
+    /**
+     * Like an entity update: cached queries over the table are stale from now until after completion, and the
+     * row's entry is dropped once the transaction has ended (so a concurrent load cannot put the old row back)
+     */
+    private void invalidateCachedRow(Long id) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        CacheImplementor cache = session.getFactory().getCache();
+        Serializable[] spaces = session.getFactory().getMappingMetamodel().getEntityDescriptor(entityClass).getQuerySpaces();
+        String[] tables = new String[spaces.length];
+        for (int i = 0; i < spaces.length; i++) {
+            tables[i] = (String) spaces[i];
+        }
+        cache.evictEntityData(entityClass, id);
+        cache.getTimestampsCache().preInvalidate(tables, session);
+        session.getActionQueue().registerProcess((success, completedSession) -> {
+            cache.evictEntityData(entityClass, id);
+            cache.getTimestampsCache().invalidate(tables, completedSession);
+        });
+    }
+}
@@ -0,0 +1,9 @@
+package com.flexfolio.backend.repository;
+
+import com.flexfolio.backend.model.PortfolioDocumentEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PortfolioDocumentRepository extends JpaRepository<PortfolioDocumentEntity, Long> {
+}
@@ -1,12 +1,81 @@
 package com.flexfolio.backend.repository;
 
+import com.flexfolio.backend.dto.PortfolioDto;
 import com.flexfolio.backend.model.PortfolioEntity;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+/**
+ * List queries use the {@link PortfolioEntity#WITH_USER} fetch plan: the owner is joined
+ * and the experiences/educations collections are initialized in batches, so loading
+ * N portfolios costs a fixed number of statements instead of 2N + 1.
+ */
 @Repository
 public interface PortfolioRepository extends JpaRepository<PortfolioEntity, Long> {
+
+    /**
+     * Rows fetched per round trip by the export cursors
+     */
+    int EXPORT_FETCH_SIZE = 500;
+
+    @EntityGraph(PortfolioEntity.WITH_USER)
     List<PortfolioEntity> findByUserId(Long userId);
-}
 
+    @Override
+    @EntityGraph(PortfolioEntity.WITH_USER)
+    List<PortfolioEntity> findAll();
+
+    @EntityGraph(PortfolioEntity.WITH_USER)
+    List<PortfolioEntity> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Forward-only cursor over all portfolios (without children) as DTOs, ordered by id
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + PortfolioRepository.EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select new com.flexfolio.backend.dto.PortfolioDto(p.id, p.user.id, p.version) from PortfolioEntity p order by p.id")
+    Stream<PortfolioDto> streamAllForExport();
+
+    /**
+     * Load a portfolio holding its row lock until the end of the transaction
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @EntityGraph(PortfolioEntity.WITH_USER)
+    @Query("select p from PortfolioEntity p where p.id = :id")
+    Optional<PortfolioEntity> findByIdForUpdate(@Param("id") Long id);
+
+    @Query("select new com.flexfolio.backend.dto.PortfolioDto(p.id, p.user.id, p.version) from PortfolioEntity p where p.id = :id")
+    Optional<PortfolioDto> findDtoById(@Param("id") Long id);
+
+    @Query("select p.id from PortfolioEntity p where p.id > :after order by p.id")
+    List<Long> findIdsAfter(@Param("after") Long after, Limit limit);
+
+    List<PortfolioVersion> findVersionsByUserIdOrderByIdAsc(Long userId);
+
+    @Query("select p.user.id from PortfolioEntity p where p.id = :id")
+    Optional<Long> findOwnerIdById(@Param("id") Long id);
+
+    /**
+     * Forward-only cursor over every portfolio id and its owner's id
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + PortfolioRepository.EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select p.id as id, p.user.id as parentId from PortfolioEntity p")
+    Stream<ParentRef> streamOwners();
+}
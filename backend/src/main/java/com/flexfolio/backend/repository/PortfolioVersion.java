@@ -0,0 +1,10 @@
+package com.flexfolio.backend.repository;
+
+/**
+ * Projection of a portfolio's identity and version, used for ETags without loading the aggregate
+ */
+public interface PortfolioVersion {
+    Long getId();
+
+    Long getVersion();
+}
@@ -0,0 +1,37 @@
+package com.flexfolio.backend.repository;
+
+import com.flexfolio.backend.model.RefreshTokenEntity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshTokenEntity, String> {
+
+    /**
+     * Load a token with its user in one primary-key lookup, holding the row lock so concurrent exchanges of the
+     * same token are serialized (the second one sees it used)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from RefreshTokenEntity r join fetch r.user where r.tokenHash = :hash")
+    Optional<RefreshTokenEntity> findByHashForUpdate(@Param("hash") String hash);
+
+    @Query("select r.familyId from RefreshTokenEntity r where r.tokenHash = :hash")
+    Optional<UUID> findFamilyIdByHash(@Param("hash") String hash);
+
+    @Modifying
+    @Query("delete from RefreshTokenEntity r where r.familyId = :familyId")
+    int deleteFamily(@Param("familyId") UUID familyId);
+
+    @Modifying
+    @Query("delete from RefreshTokenEntity r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
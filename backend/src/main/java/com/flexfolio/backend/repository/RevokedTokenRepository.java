@@ -0,0 +1,36 @@
+package com.flexfolio.backend.repository;
+
+import com.flexfolio.backend.model.RevokedTokenEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedTokenEntity, String> {
+
+    /**
+     * Forward-only cursor over the ids of revoked tokens that have not expired yet
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + PortfolioRepository.EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select r.jti from RevokedTokenEntity r where r.expiresAt > :now")
+    Stream<String> streamUnexpiredIds(@Param("now") Instant now);
+
+    @Query("select r.jti from RevokedTokenEntity r where r.revokedAt > :since and r.expiresAt > :now")
+    List<String> findIdsRevokedSince(@Param("since") Instant since, @Param("now") Instant now);
+
+    @Modifying
+    @Query("delete from RevokedTokenEntity r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
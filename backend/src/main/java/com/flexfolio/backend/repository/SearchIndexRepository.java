@@ -0,0 +1,140 @@
+package com.flexfolio.backend.repository;
+
+import com.flexfolio.backend.dto.SearchResultDto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Full-text index over experiences and educations (table search_entry, see db/search-schema.sql).
+ * Entries are built in SQL from the indexed rows, so writes go through plain JDBC in the caller's
+ * transaction and never touch the Hibernate second-level cache.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SearchIndexRepository {
+
+    public static final String EXPERIENCE = "EXPERIENCE";
+    public static final String EDUCATION = "EDUCATION";
+
+    private static final String UPSERT =
+        " ON CONFLICT (entity_type, entity_id) DO UPDATE SET portfolio_id = EXCLUDED.portfolio_id,"
+        + " title = EXCLUDED.title, subtitle = EXCLUDED.subtitle, document = EXCLUDED.document";
+
+    /** Position weighs more than employer, employer more than responsibilities */
+    private static final String INDEX_EXPERIENCES =
+        "INSERT INTO search_entry (entity_type, entity_id, portfolio_id, title, subtitle, document)"
+        + " SELECT 'EXPERIENCE', e.id_exp, e.id_portfolio, e.position_, e.employer,"
+        + " setweight(to_tsvector(CAST(:config AS regconfig), coalesce(e.position_, '')), 'A')"
+        + " || setweight(to_tsvector(CAST(:config AS regconfig), coalesce(e.employer, '')), 'B')"
+        + " || setweight(to_tsvector(CAST(:config AS regconfig), coalesce(e.responsibilities, '')), 'C')"
+        + " FROM experience e";
+
+    /** Qualification title weighs more than training */
+    private static final String INDEX_EDUCATIONS =
+        "INSERT INTO search_entry (entity_type, entity_id, portfolio_id, title, subtitle, document)"
+        + " SELECT 'EDUCATION', e.id_edu, e.id_portfolio, e.title_of_qualification, e.training,"
+        + " setweight(to_tsvector(CAST(:config AS regconfig), coalesce(e.title_of_qualification, '')), 'A')"
+        + " || setweight(to_tsvector(CAST(:config AS regconfig), coalesce(e.training, '')), 'B')"
+        + " FROM education e";
+
+    private static final String SEARCH =
+        "SELECT * FROM ("
+        + " SELECT s.entity_type, s.entity_id, s.portfolio_id, s.title, s.subtitle, ts_rank_cd(s.document, q.query) AS rank"
+        + " FROM search_entry s, websearch_to_tsquery(CAST(:config AS regconfig), :query) AS q(query)"
+        + " WHERE s.document @@ q.query"
+        + ") r";
+
+    private static final String AFTER =
+        " WHERE r.rank < :rank OR (r.rank = :rank AND (r.entity_type, r.entity_id) > (:type, :id))";
+
+    private static final String ORDER =
+        " ORDER BY r.rank DESC, r.entity_type, r.entity_id LIMIT :limit";
+
+    private static final RowMapper<SearchResultDto> RESULT_MAPPER = (rs, rowNum) -> new SearchResultDto(
+        rs.getString("entity_type"),
+        rs.getLong("entity_id"),
+        rs.getLong("portfolio_id"),
+        rs.getString("title"),
+        rs.getString("subtitle"),
+        rs.getFloat("rank"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${search.text-search-config:simple}")
+    private String textSearchConfig;
+
+    /**
+     * (Re)index the given experiences from their current rows
+     */
+    public void indexExperiences(Collection<Long> ids) {
+        index(INDEX_EXPERIENCES + " WHERE e.id_exp IN (:ids)", ids);
+    }
+
+    /**
+     * (Re)index the given educations from their current rows
+     */
+    public void indexEducations(Collection<Long> ids) {
+        index(INDEX_EDUCATIONS + " WHERE e.id_edu IN (:ids)", ids);
+    }
+
+    /**
+     * Remove one entity from the index
+     */
+    public void delete(String entityType, Long id) {
+        jdbcTemplate.update("DELETE FROM search_entry WHERE entity_type = :type AND entity_id = :id",
+            new MapSqlParameterSource("type", entityType).addValue("id", id));
+    }
+
+    /**
+     * Remove every entry of a portfolio
+     */
+    public void deleteByPortfolioId(Long portfolioId) {
+        jdbcTemplate.update("DELETE FROM search_entry WHERE portfolio_id = :portfolioId",
+            new MapSqlParameterSource("portfolioId", portfolioId));
+    }
+
+    /**
+     * Rebuild the whole index from the experience and education tables
+     * @return the number of indexed entities
+     */
+    public int reindexAll() {
+        MapSqlParameterSource params = new MapSqlParameterSource("config", textSearchConfig);
+        jdbcTemplate.update("DELETE FROM search_entry", params);
+        return jdbcTemplate.update(INDEX_EXPERIENCES + UPSERT, params)
+            + jdbcTemplate.update(INDEX_EDUCATIONS + UPSERT, params);
+    }
+
+    /**
+     * Best matches first, ties broken by type and id; starts after (rank, type, id) when given
+     */
+    public List<SearchResultDto> search(String query, Float afterRank, String afterType, Long afterId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource("config", textSearchConfig)
+            .addValue("query", query)
+            .addValue("limit", limit);
+        if (afterRank == null) {
+            return jdbcTemplate.query(SEARCH + ORDER, params, RESULT_MAPPER);
+        }
+        params.addValue("rank", afterRank).addValue("type", afterType).addValue("id", afterId);
+        return jdbcTemplate.query(SEARCH + AFTER + ORDER, params, RESULT_MAPPER);
+    }
+
+    private void index(String sql, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        // Pending inserts/updates of the current transaction must be visible to the INSERT ... SELECT
+        entityManager.flush();
+        jdbcTemplate.update(sql + UPSERT, new MapSqlParameterSource("config", textSearchConfig).addValue("ids", ids));
+    }
+}
@@ -1,11 +1,46 @@
 package com.flexfolio.backend.repository;
 
 import com.flexfolio.backend.model.UserEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<UserEntity, Long> {
-    Optional<UserEntity> findByEmail(String email);
+    /**
+     * Case-insensitive; served by the unique index on lower(email)
+     */
+    @Query("select u from UserEntity u where lower(u.email) = lower(:email)")
+    Optional<UserEntity> findByEmail(@Param("email") String email);
+
+    /**
+     * Case-insensitive, answered from the unique index on lower(email) without loading the user
+     */
+    @Query("select count(u) > 0 from UserEntity u where lower(u.email) = lower(:email)")
+    boolean existsByEmail(@Param("email") String email);
+
+    List<UserEntity> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Modifying
+    @Query("update UserEntity u set u.password = :password where u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
+
+    /**
+     * Forward-only cursor over every registered email
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + PortfolioRepository.EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select u.email from UserEntity u")
+    Stream<String> streamEmails();
 }
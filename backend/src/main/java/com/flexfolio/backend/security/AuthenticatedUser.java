@@ -0,0 +1,20 @@
+package com.flexfolio.backend.security;
+
+import lombok.Getter;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collections;
+
+/**
+ * UserDetails that also carries the user id, so a successful login needs no second user lookup
+ */
+@Getter
+public class AuthenticatedUser extends User {
+
+    private final Long userId;
+
+    public AuthenticatedUser(Long userId, String email, String password) {
+        super(email, password, true, true, true, true, Collections.emptyList());
+        this.userId = userId;
+    }
+}
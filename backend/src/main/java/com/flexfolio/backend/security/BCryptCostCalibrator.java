@@ -0,0 +1,46 @@
+package com.flexfolio.backend.security;
+
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+/**
+ * Picks the BCrypt work factor for this machine
+ * Times a hash at the minimum cost and takes the highest cost whose expected time stays within the target;
+ * each extra cost step doubles the work. The minimum applies even when the machine is too slow to meet the
+ * target, so the policy never drops below it.
+ */
+public final class BCryptCostCalibrator {
+
+    private static final int SAMPLES = 3;
+
+    private BCryptCostCalibrator() {
+    }
+
+    /**
+     * @param targetMs  hashing time to stay within, in milliseconds
+     * @param minCost   lowest acceptable cost (BCrypt log rounds)
+     * @param maxCost   highest cost to consider
+     */
+    public static int calibrate(long targetMs, int minCost, int maxCost) {
+        double measuredMs = measure(minCost);
+        int cost = minCost;
+        while (cost < maxCost && measuredMs * (1L << (cost + 1 - minCost)) <= targetMs) {
+            cost++;
+        }
+        return cost;
+    }
+
+    /**
+     * Fastest of a few hashes at the given cost, after one warm-up hash, in milliseconds
+     */
+    private static double measure(int cost) {
+        String salt = BCrypt.gensalt(cost);
+        BCrypt.hashpw("calibration-password", salt);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            BCrypt.hashpw("calibration-password", salt);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1_000_000.0;
+    }
+}
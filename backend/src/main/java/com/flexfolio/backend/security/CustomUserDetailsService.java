@@ -1,41 +1,50 @@
 package com.flexfolio.backend.security;
 
+import com.flexfolio.backend.datasource.ReadOnlyTransactional;
 import com.flexfolio.backend.model.UserEntity;
 import com.flexfolio.backend.repository.UserRepository;
+import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 /**
  * Custom UserDetailsService implementation
- * Loads user from database for Spring Security
+ * Loads user from database for Spring Security and for login, and stores rehashed passwords: after a successful
+ * login whose stored hash is below the current policy (untagged or lower BCrypt cost), the password, re-encoded,
+ * is handed to {@link #updatePassword}.
  */
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private UserRepository userRepository;
 
     /**
-     * Load user by email (username)
+     * Load user by email (username); read-only, so login lookups go to a replica when one is configured
+     * The returned details carry the user id for the token, so this is the only user lookup of a login.
      */
     @Override
+    @ReadOnlyTransactional
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         UserEntity user = userRepository.findByEmail(email)
             .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
 
-        return User.builder()
-            .username(user.getEmail())
-            .password(user.getPassword())
-            .authorities(java.util.Collections.emptyList())
-            .accountExpired(false)
-            .accountLocked(false)
-            .credentialsExpired(false)
-            .disabled(false)
-            .build();
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getPassword());
+    }
+
+    /**
+     * Replace a user's password hash with one encoded under the current policy
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        AuthenticatedUser authenticatedUser = (AuthenticatedUser) user;
+        userRepository.updatePassword(authenticatedUser.getUserId(), newPassword);
+        return new AuthenticatedUser(authenticatedUser.getUserId(), authenticatedUser.getUsername(), newPassword);
     }
 
     /**
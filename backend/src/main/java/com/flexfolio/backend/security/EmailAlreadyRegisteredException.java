@@ -0,0 +1,11 @@
+package com.flexfolio.backend.security;
+
+/**
+ * Thrown when a registration uses an email that already belongs to a user (compared case-insensitively)
+ */
+public class EmailAlreadyRegisteredException extends RuntimeException {
+
+    public EmailAlreadyRegisteredException() {
+        super("Email already registered");
+    }
+}
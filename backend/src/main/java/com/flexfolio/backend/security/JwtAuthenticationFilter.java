@@ -23,17 +23,30 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private JwtTokenProvider tokenProvider;
 
+    @Autowired
+    private SecurityMetrics securityMetrics;
+
+    @Autowired
+    private TokenDenylist tokenDenylist;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (jwt != null && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromToken(jwt);
+            JwtPrincipal principal = jwt != null ? tokenProvider.verify(jwt).orElse(null) : null;
 
+            if (jwt == null) {
+                securityMetrics.jwtAbsent();
+            } else if (principal == null) {
+                securityMetrics.jwtInvalid();
+            } else if (tokenDenylist.isRevoked(principal.getTokenId())) {
+                securityMetrics.jwtRevoked();
+            } else {
+                securityMetrics.jwtValid();
                 UsernamePasswordAuthenticationToken authentication =
-                    new UsernamePasswordAuthenticationToken(username, null, null);
+                    new UsernamePasswordAuthenticationToken(principal, null, null);
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -0,0 +1,44 @@
+package com.flexfolio.backend.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+import java.util.Date;
+
+/**
+ * Verified JWT principal
+ * Produced once per token by {@link JwtTokenProvider#verify(String)}; carries the user id and scope from the
+ * token so ownership checks need no user lookup, and the token id (jti) for revocation.
+ */
+@Getter
+@AllArgsConstructor
+public class JwtPrincipal implements AuthenticatedPrincipal {
+    private final String username;
+    private final Long userId;
+    private final String scope;
+    private final String tokenId;
+    private final Date expiration;
+
+    /**
+     * The username (email), so Authentication#getName keeps returning it
+     */
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    /**
+     * Check if the token grants access to the resources owned by its user
+     */
+    public boolean hasOwnerScope() {
+        return userId != null && JwtTokenProvider.OWNER_SCOPE.equals(scope);
+    }
+
+    /**
+     * Check if the token this principal was read from has expired
+     */
+    public boolean isExpired() {
+        return expiration != null && expiration.before(new Date());
+    }
+}
@@ -1,9 +1,12 @@
 package com.flexfolio.backend.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
@@ -12,6 +15,8 @@ import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.function.Function;
 
 /**
@@ -20,12 +25,45 @@ import java.util.function.Function;
 @Component
 public class JwtTokenProvider {
 
+    /**
+     * Claim holding the user id
+     */
+    public static final String USER_ID_CLAIM = "uid";
+
+    /**
+     * Claim holding the access scope
+     */
+    public static final String SCOPE_CLAIM = "scope";
+
+    /**
+     * Scope of a user's own token: read and write the portfolios (and their experiences/educations) the user owns
+     */
+    public static final String OWNER_SCOPE = "own";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
     @Value("${jwt.expiration}")
     private long jwtExpirationMs;
 
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    private SecretKey signingKey;
+
+    private JwtParser parser;
+
+    /**
+     * Build the signing key and parser once; both are immutable and thread-safe
+     */
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+    }
+
     /**
      * Generate JWT token from username
      */
@@ -34,6 +72,23 @@ public class JwtTokenProvider {
         return createToken(claims, username);
     }
 
+    /**
+     * Generate JWT token for a user, carrying the user id and the owner scope
+     */
+    public String generateToken(String username, Long userId) {
+        return generateToken(username, userId, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Generate JWT token for a user with a given token id, so it can be bound to the refresh token issued with it
+     */
+    public String generateToken(String username, Long userId, String tokenId) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(USER_ID_CLAIM, userId);
+        claims.put(SCOPE_CLAIM, OWNER_SCOPE);
+        return createToken(claims, username, tokenId);
+    }
+
     /**
      * Generate JWT token with custom claims
      */
@@ -46,15 +101,23 @@ public class JwtTokenProvider {
      * Create JWT token
      */
     private String createToken(Map<String, Object> claims, String subject) {
+        return createToken(claims, subject, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Create JWT token with the given id
+     */
+    private String createToken(Map<String, Object> claims, String subject, String tokenId) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
 
         return Jwts.builder()
-                .setClaims(claims)
-                .setSubject(subject)
-                .setIssuedAt(now)
-                .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .claims(claims)
+                .subject(subject)
+                .id(tokenId)
+                .issuedAt(now)
+                .expiration(expiryDate)
+                .signWith(getSigningKey(), Jwts.SIG.HS256)
                 .compact();
     }
 
@@ -62,7 +125,41 @@ public class JwtTokenProvider {
      * Get signing key
      */
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        return signingKey;
+    }
+
+    /**
+     * Verify token and return its principal
+     * The signature and expiration are checked by a single parse; repeat tokens are served from the cache.
+     */
+    public Optional<JwtPrincipal> verify(String token) {
+        JwtPrincipal cached = verifiedTokenCache.get(token);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            JwtPrincipal principal = new JwtPrincipal(claims.getSubject(), claims.get(USER_ID_CLAIM, Long.class),
+                claims.get(SCOPE_CLAIM, String.class), claims.getId(), claims.getExpiration());
+            verifiedTokenCache.put(token, principal);
+            return Optional.of(principal);
+        } catch (Exception e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Id of a token signed by this application, expired or not
+     * Lets a client that refreshes show the access token it was issued with the refresh token.
+     */
+    public Optional<String> getTokenIdAllowingExpiry(String token) {
+        try {
+            return Optional.ofNullable(parser.parseSignedClaims(token).getPayload().getId());
+        } catch (ExpiredJwtException e) {
+            return Optional.ofNullable(e.getClaims().getId());
+        } catch (Exception e) {
+            return Optional.empty();
+        }
     }
 
     /**
@@ -92,11 +189,7 @@ public class JwtTokenProvider {
      */
     private Claims getAllClaimsFromToken(String token) {
         try {
-            return Jwts.parser()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            return parser.parseSignedClaims(token).getPayload();
         } catch (Exception e) {
             throw new RuntimeException("Failed to parse JWT token", e);
         }
@@ -118,15 +211,7 @@ public class JwtTokenProvider {
      * Validate token
      */
     public Boolean validateToken(String token) {
-        try {
-            Jwts.parser()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
-            return !isTokenExpired(token);
-        } catch (Exception e) {
-            return false;
-        }
+        return verify(token).isPresent();
     }
 
     /**
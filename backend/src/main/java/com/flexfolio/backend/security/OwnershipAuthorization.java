@@ -0,0 +1,72 @@
+package com.flexfolio.backend.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Request authorization rules for owned resources
+ * Each rule reads an id from a path variable and compares its owner, found in the {@link PortfolioOwnerIndex},
+ * with the user id carried by the token. Ids that are malformed or not found are denied.
+ */
+@Component
+@RequiredArgsConstructor
+public class OwnershipAuthorization {
+
+    private final PortfolioOwnerIndex portfolioOwnerIndex;
+
+    /**
+     * The path variable is the authenticated user's id
+     */
+    public AuthorizationManager<RequestAuthorizationContext> isUser(String variable) {
+        return ownerOf(variable, Optional::of);
+    }
+
+    /**
+     * The path variable is a portfolio owned by the authenticated user
+     */
+    public AuthorizationManager<RequestAuthorizationContext> ownsPortfolio(String variable) {
+        return ownerOf(variable, portfolioOwnerIndex::ownerOfPortfolio);
+    }
+
+    /**
+     * The path variable is an experience in a portfolio owned by the authenticated user
+     */
+    public AuthorizationManager<RequestAuthorizationContext> ownsExperience(String variable) {
+        return ownerOf(variable, portfolioOwnerIndex::ownerOfExperience);
+    }
+
+    /**
+     * The path variable is an education in a portfolio owned by the authenticated user
+     */
+    public AuthorizationManager<RequestAuthorizationContext> ownsEducation(String variable) {
+        return ownerOf(variable, portfolioOwnerIndex::ownerOfEducation);
+    }
+
+    private static AuthorizationManager<RequestAuthorizationContext> ownerOf(String variable,
+            Function<Long, Optional<Long>> owner) {
+        return (authentication, context) -> new AuthorizationDecision(isOwner(authentication, context, variable, owner));
+    }
+
+    private static boolean isOwner(Supplier<Authentication> authentication, RequestAuthorizationContext context,
+            String variable, Function<Long, Optional<Long>> owner) {
+        Authentication current = authentication.get();
+        if (current == null || !(current.getPrincipal() instanceof JwtPrincipal principal) || !principal.hasOwnerScope()) {
+            return false;
+        }
+        Long id;
+        try {
+            id = Long.valueOf(context.getVariables().get(variable));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        return owner.apply(id).map(principal.getUserId()::equals).orElse(false);
+    }
+}
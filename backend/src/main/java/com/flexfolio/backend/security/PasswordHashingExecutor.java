@@ -0,0 +1,94 @@
+package com.flexfolio.backend.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded worker pool for BCrypt hashing and verification
+ * Keeps password work off the request pool: at most {@code threads} hashes run at once and at most
+ * {@code queueCapacity} wait. Anything beyond that is rejected immediately with
+ * {@link PasswordHashingRejectedException} so the caller can answer 503 instead of tying up a request thread.
+ * Callers get a future, so the request thread is released while the hash runs; the future completes on the
+ * application task executor so follow-up work (token issue, inserts) never occupies a hashing worker.
+ * Hash time itself is measured by {@link TimedPasswordEncoder}.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+
+    private final Executor completionExecutor;
+
+    private final Timer queueWaitTimer;
+
+    private final long retryAfterSeconds;
+
+    public PasswordHashingExecutor(MeterRegistry meterRegistry,
+                                   @Qualifier("applicationTaskExecutor") Executor completionExecutor,
+                                   @Value("${security.password-hashing.threads:0}") int threads,
+                                   @Value("${security.password-hashing.queue-capacity:64}") int queueCapacity,
+                                   @Value("${security.password-hashing.retry-after-seconds:1}") long retryAfterSeconds) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "password-hashing-" + threadIndex.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+        this.completionExecutor = completionExecutor;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.queueWaitTimer = Timer.builder("auth.password.queue.wait")
+            .description("Time a password hashing task waited for a worker")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        Gauge.builder("auth.password.queue.depth", executor, e -> e.getQueue().size())
+            .description("Password hashing tasks waiting for a worker")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Run a hashing task on the pool without waiting for it
+     * @return a future completed with the task's result or exception, or failed with
+     * {@link PasswordHashingRejectedException} when the pool is saturated
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        long submittedAt = System.nanoTime();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                queueWaitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                try {
+                    T value = task.call();
+                    completionExecutor.execute(() -> result.complete(value));
+                } catch (Throwable e) {
+                    completionExecutor.execute(() -> result.completeExceptionally(e));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new PasswordHashingRejectedException(retryAfterSeconds));
+        }
+        return result;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,18 @@
+package com.flexfolio.backend.security;
+
+/**
+ * Thrown when the password hashing pool is saturated and cannot accept more work
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public PasswordHashingRejectedException(long retryAfterSeconds) {
+        super("Password hashing capacity exceeded");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
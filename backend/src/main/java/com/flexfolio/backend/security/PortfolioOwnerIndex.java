@@ -0,0 +1,234 @@
+package com.flexfolio.backend.security;
+
+import com.flexfolio.backend.repository.EducationRepository;
+import com.flexfolio.backend.repository.ExperienceRepository;
+import com.flexfolio.backend.repository.ParentRef;
+import com.flexfolio.backend.repository.PortfolioRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index of who owns what: portfolio to owner, experience and education to portfolio
+ * Warmed at startup and kept current by the write services, which report changes here; they are applied
+ * after the surrounding transaction commits. Ownership checks on request paths are answered from these caches.
+ * A miss falls back to one primary-key query and the answer, found or not, is remembered. The index is per
+ * instance, so entries expire: a change made on another instance (an ownership transfer, a new or deleted id)
+ * is seen here within {@code ownership-index.ttl-seconds}, or {@code negative-ttl-seconds} for ids not found.
+ * Each cache holds at most {@code ownership-index.max-size} entries.
+ */
+@Component
+public class PortfolioOwnerIndex {
+
+    private final Cache<Long, Optional<Long>> ownerByPortfolio;
+
+    private final Cache<Long, Optional<Long>> portfolioByExperience;
+
+    private final Cache<Long, Optional<Long>> portfolioByEducation;
+
+    private final PortfolioRepository portfolioRepository;
+
+    private final ExperienceRepository experienceRepository;
+
+    private final EducationRepository educationRepository;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final Counter misses;
+
+    public PortfolioOwnerIndex(PortfolioRepository portfolioRepository,
+                               ExperienceRepository experienceRepository,
+                               EducationRepository educationRepository,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${ownership-index.ttl-seconds:60}") long ttlSeconds,
+                               @Value("${ownership-index.negative-ttl-seconds:5}") long negativeTtlSeconds,
+                               @Value("${ownership-index.max-size:100000}") long maxSize) {
+        Expiry<Long, Optional<Long>> expiry = new FoundOrMissing(Duration.ofSeconds(ttlSeconds), Duration.ofSeconds(negativeTtlSeconds));
+        this.ownerByPortfolio = Caffeine.newBuilder().maximumSize(maxSize).expireAfter(expiry).build();
+        this.portfolioByExperience = Caffeine.newBuilder().maximumSize(maxSize).expireAfter(expiry).build();
+        this.portfolioByEducation = Caffeine.newBuilder().maximumSize(maxSize).expireAfter(expiry).build();
+        this.portfolioRepository = portfolioRepository;
+        this.experienceRepository = experienceRepository;
+        this.educationRepository = educationRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.misses = Counter.builder("flexfolio.ownership.index.misses")
+            .description("Ownership lookups not found in the in-memory index")
+            .register(meterRegistry);
+        Gauge.builder("flexfolio.ownership.index.entries", this, PortfolioOwnerIndex::size)
+            .description("Entries held by the in-memory ownership index")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Warm the caches with every ownership edge (up to the size bound); existing entries win, since they were
+     * written by commits made during the load
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            load(portfolioRepository.streamOwners(), ownerByPortfolio);
+            load(experienceRepository.streamPortfolioIds(), portfolioByExperience);
+            load(educationRepository.streamPortfolioIds(), portfolioByEducation);
+        });
+    }
+
+    /**
+     * Owner of a portfolio
+     */
+    public Optional<Long> ownerOfPortfolio(Long portfolioId) {
+        return lookup(ownerByPortfolio, portfolioId, portfolioRepository::findOwnerIdById);
+    }
+
+    /**
+     * Portfolio an experience belongs to
+     */
+    public Optional<Long> portfolioOfExperience(Long experienceId) {
+        return lookup(portfolioByExperience, experienceId, experienceRepository::findPortfolioIdById);
+    }
+
+    /**
+     * Portfolio an education belongs to
+     */
+    public Optional<Long> portfolioOfEducation(Long educationId) {
+        return lookup(portfolioByEducation, educationId, educationRepository::findPortfolioIdById);
+    }
+
+    /**
+     * Owner of the portfolio an experience belongs to
+     */
+    public Optional<Long> ownerOfExperience(Long experienceId) {
+        return portfolioOfExperience(experienceId).flatMap(this::ownerOfPortfolio);
+    }
+
+    /**
+     * Owner of the portfolio an education belongs to
+     */
+    public Optional<Long> ownerOfEducation(Long educationId) {
+        return portfolioOfEducation(educationId).flatMap(this::ownerOfPortfolio);
+    }
+
+    /**
+     * Record a created portfolio or a change of owner once the transaction commits
+     */
+    public void portfolioSaved(Long portfolioId, Long ownerId) {
+        afterCommit(() -> ownerByPortfolio.put(portfolioId, Optional.of(ownerId)));
+    }
+
+    /**
+     * Forget a deleted portfolio and its experiences and educations once the transaction commits
+     */
+    public void portfolioDeleted(Long portfolioId, Collection<Long> experienceIds, Collection<Long> educationIds) {
+        afterCommit(() -> {
+            ownerByPortfolio.put(portfolioId, Optional.empty());
+            experienceIds.forEach(id -> portfolioByExperience.put(id, Optional.empty()));
+            educationIds.forEach(id -> portfolioByEducation.put(id, Optional.empty()));
+        });
+    }
+
+    /**
+     * Record experiences created in a portfolio once the transaction commits
+     */
+    public void experiencesSaved(Long portfolioId, Collection<Long> experienceIds) {
+        afterCommit(() -> experienceIds.forEach(id -> portfolioByExperience.put(id, Optional.of(portfolioId))));
+    }
+
+    /**
+     * Forget a deleted experience once the transaction commits
+     */
+    public void experienceDeleted(Long experienceId) {
+        afterCommit(() -> portfolioByExperience.put(experienceId, Optional.empty()));
+    }
+
+    /**
+     * Record educations created in a portfolio once the transaction commits
+     */
+    public void educationsSaved(Long portfolioId, Collection<Long> educationIds) {
+        afterCommit(() -> educationIds.forEach(id -> portfolioByEducation.put(id, Optional.of(portfolioId))));
+    }
+
+    /**
+     * Forget a deleted education once the transaction commits
+     */
+    public void educationDeleted(Long educationId) {
+        afterCommit(() -> portfolioByEducation.put(educationId, Optional.empty()));
+    }
+
+    private long size() {
+        return ownerByPortfolio.estimatedSize() + portfolioByExperience.estimatedSize() + portfolioByEducation.estimatedSize();
+    }
+
+    private Optional<Long> lookup(Cache<Long, Optional<Long>> index, Long id, Function<Long, Optional<Long>> loader) {
+        return index.get(id, key -> {
+            misses.increment();
+            return loader.apply(key);
+        });
+    }
+
+    private static void load(Stream<ParentRef> refs, Cache<Long, Optional<Long>> index) {
+        try (refs) {
+            refs.forEach(ref -> index.asMap().putIfAbsent(ref.getId(), Optional.of(ref.getParentId())));
+        }
+    }
+
+    /**
+     * Found entries live for the TTL, not-found ones for the shorter negative TTL; a write restarts the clock
+     */
+    private static final class FoundOrMissing implements Expiry<Long, Optional<Long>> {
+
+        private final long ttlNanos;
+
+        private final long negativeTtlNanos;
+
+        private FoundOrMissing(Duration ttl, Duration negativeTtl) {
+            this.ttlNanos = ttl.toNanos();
+            this.negativeTtlNanos = negativeTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(Long key, Optional<Long> value, long currentTime) {
+            return value.isPresent() ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(Long key, Optional<Long> value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long key, Optional<Long> value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
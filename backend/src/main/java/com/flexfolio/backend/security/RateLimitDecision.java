@@ -0,0 +1,26 @@
+package com.flexfolio.backend.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of admitting one request, with the values for the RateLimit-* response headers
+ */
+@Getter
+@AllArgsConstructor
+public class RateLimitDecision {
+
+    private final boolean allowed;
+
+    private final String group;
+
+    private final int limit;
+
+    private final int remaining;
+
+    /** Seconds until the bucket is full again */
+    private final long resetSeconds;
+
+    /** Seconds to wait before retrying; 0 when allowed */
+    private final long retryAfterSeconds;
+}
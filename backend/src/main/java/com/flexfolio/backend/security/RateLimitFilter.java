@@ -0,0 +1,57 @@
+package com.flexfolio.backend.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Request admission, right after JwtAuthenticationFilter so the subject is known
+ * Answers 429 with Retry-After when a bucket is empty; every limited response carries the
+ * RateLimit-Limit / RateLimit-Remaining / RateLimit-Reset headers (IETF RateLimit header fields).
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    public static final String LIMIT_HEADER = "RateLimit-Limit";
+    public static final String REMAINING_HEADER = "RateLimit-Remaining";
+    public static final String RESET_HEADER = "RateLimit-Reset";
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RateLimitDecision decision = rateLimiter.admit(request, currentUsername());
+        if (decision != null) {
+            response.setHeader(LIMIT_HEADER, String.valueOf(decision.getLimit()));
+            response.setHeader(REMAINING_HEADER, String.valueOf(decision.getRemaining()));
+            response.setHeader(RESET_HEADER, String.valueOf(decision.getResetSeconds()));
+            if (!decision.isAllowed()) {
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(decision.getRetryAfterSeconds()));
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
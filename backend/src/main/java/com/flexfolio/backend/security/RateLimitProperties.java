@@ -0,0 +1,49 @@
+package com.flexfolio.backend.security;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Request admission limits ({@code security.rate-limit})
+ * Groups are matched in order, like the rules in SecurityConfig; the first group whose paths (and methods,
+ * when given) match the request applies. Each group can limit per authenticated user, per client IP, or both.
+ */
+@Data
+@ConfigurationProperties("security.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Upper bound on buckets per group and scope; beyond it the least useful buckets are evicted
+     */
+    private int maxBuckets = 100_000;
+
+    /**
+     * How often fully refilled (stateless) buckets are dropped
+     */
+    private Duration evictionInterval = Duration.ofMinutes(1);
+
+    private List<Group> groups = new ArrayList<>();
+
+    @Data
+    public static class Group {
+        private String name;
+        private List<String> paths = new ArrayList<>();
+        /** Empty = all methods */
+        private List<String> methods = new ArrayList<>();
+        private Limit perUser;
+        private Limit perIp;
+    }
+
+    @Data
+    public static class Limit {
+        /** Burst size */
+        private int capacity;
+        private double refillPerSecond;
+    }
+}
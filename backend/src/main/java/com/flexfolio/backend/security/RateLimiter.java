@@ -0,0 +1,166 @@
+package com.flexfolio.backend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-user and per-IP token buckets for each route group of {@code security.rate-limit}
+ * Buckets live in size-bounded Caffeine caches (lock-free reads) and are lock-free themselves. Memory is
+ * bounded two ways: full buckets carry no state and are dropped by a background sweep, and a group holds at
+ * most {@code max-buckets} subjects per scope, evicting the least useful ones first. An evicted subject
+ * simply starts again from a full bucket, so one flood of new keys cannot throttle everybody else.
+ */
+@Component
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimiter {
+
+    private final boolean enabled;
+
+    private final List<GroupLimiter> groups = new ArrayList<>();
+
+    private final ScheduledExecutorService evictor;
+
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        for (RateLimitProperties.Group group : properties.getGroups()) {
+            groups.add(new GroupLimiter(group, properties.getMaxBuckets(), meterRegistry));
+        }
+        Gauge.builder("http.ratelimit.buckets", groups, RateLimiter::bucketCount)
+            .description("Token buckets currently held")
+            .register(meterRegistry);
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rate-limit-eviction");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMs = properties.getEvictionInterval().toMillis();
+        evictor.scheduleWithFixedDelay(this::evictFullBuckets, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Admit a request against the first matching group
+     * @param username the authenticated subject, or null for anonymous requests (IP limit only)
+     * @return the most restrictive decision of the applicable buckets; null when no limit applies.
+     * A request rejected by the IP bucket gives its user token back.
+     */
+    public RateLimitDecision admit(HttpServletRequest request, String username) {
+        if (!enabled) {
+            return null;
+        }
+        GroupLimiter group = match(request);
+        if (group == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+        RateLimitDecision decision = null;
+        TokenBucket userBucket = null;
+        if (username != null && group.perUser != null) {
+            userBucket = bucket(group.userBuckets, group.perUser, username, now);
+            decision = acquire(group, userBucket, group.perUser, group.userRejections, now);
+        }
+        if (group.perIp != null && (decision == null || decision.isAllowed())) {
+            TokenBucket ipBucket = bucket(group.ipBuckets, group.perIp, request.getRemoteAddr(), now);
+            RateLimitDecision ipDecision = acquire(group, ipBucket, group.perIp, group.ipRejections, now);
+            if (!ipDecision.isAllowed() && userBucket != null) {
+                userBucket.refund();
+            }
+            if (decision == null || !ipDecision.isAllowed() || ipDecision.getRemaining() < decision.getRemaining()) {
+                decision = ipDecision;
+            }
+        }
+        return decision;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        evictor.shutdownNow();
+    }
+
+    private GroupLimiter match(HttpServletRequest request) {
+        for (GroupLimiter group : groups) {
+            for (RequestMatcher matcher : group.matchers) {
+                if (matcher.matches(request)) {
+                    return group;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static TokenBucket bucket(Cache<String, TokenBucket> buckets, RateLimitProperties.Limit limit, String key, long now) {
+        return buckets.get(key, k -> new TokenBucket(limit.getCapacity(), limit.getRefillPerSecond(), now));
+    }
+
+    private RateLimitDecision acquire(GroupLimiter group, TokenBucket bucket, RateLimitProperties.Limit limit,
+                                      Counter rejections, long now) {
+        long wait = bucket.tryAcquire(now);
+        if (wait > 0) {
+            rejections.increment();
+        }
+        return new RateLimitDecision(wait == 0, group.name, limit.getCapacity(), bucket.remaining(now),
+            toSeconds(bucket.nanosUntilFull(now)), wait > 0 ? Math.max(1L, toSeconds(wait)) : 0L);
+    }
+
+    private void evictFullBuckets() {
+        long now = System.nanoTime();
+        for (GroupLimiter group : groups) {
+            group.userBuckets.asMap().values().removeIf(bucket -> bucket.isFull(now));
+            group.ipBuckets.asMap().values().removeIf(bucket -> bucket.isFull(now));
+        }
+    }
+
+    private static long toSeconds(long nanos) {
+        return (nanos + 999_999_999L) / 1_000_000_000L;
+    }
+
+    private static double bucketCount(List<GroupLimiter> groups) {
+        return groups.stream().mapToLong(group -> group.userBuckets.estimatedSize() + group.ipBuckets.estimatedSize()).sum();
+    }
+
+    private static final class GroupLimiter {
+
+        private final String name;
+        private final List<RequestMatcher> matchers = new ArrayList<>();
+        private final RateLimitProperties.Limit perUser;
+        private final RateLimitProperties.Limit perIp;
+        private final Cache<String, TokenBucket> userBuckets;
+        private final Cache<String, TokenBucket> ipBuckets;
+        private final Counter userRejections;
+        private final Counter ipRejections;
+
+        private GroupLimiter(RateLimitProperties.Group group, int maxBuckets, MeterRegistry meterRegistry) {
+            this.name = group.getName();
+            this.userBuckets = Caffeine.newBuilder().maximumSize(maxBuckets).build();
+            this.ipBuckets = Caffeine.newBuilder().maximumSize(maxBuckets).build();
+            this.perUser = group.getPerUser();
+            this.perIp = group.getPerIp();
+            for (String path : group.getPaths()) {
+                if (group.getMethods().isEmpty()) {
+                    matchers.add(new AntPathRequestMatcher(path));
+                } else {
+                    for (String method : group.getMethods()) {
+                        matchers.add(new AntPathRequestMatcher(path, method));
+                    }
+                }
+            }
+            this.userRejections = meterRegistry.counter("http.ratelimit.rejected", "group", name, "scope", "user");
+            this.ipRejections = meterRegistry.counter("http.ratelimit.rejected", "group", name, "scope", "ip");
+        }
+    }
+}
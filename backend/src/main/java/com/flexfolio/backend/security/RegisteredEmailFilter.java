@@ -0,0 +1,78 @@
+package com.flexfolio.backend.security;
+
+import com.flexfolio.backend.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * In-memory Bloom filter of registered emails (lower-cased)
+ * Registration asks it before hashing the password: "no" is certain, so a new email goes straight to the insert;
+ * "maybe" is confirmed with one indexed lookup, so a duplicate is rejected without paying for BCrypt. Emails
+ * that stop being used (changed or deleted users) stay in the filter and only cost that lookup. It is filled
+ * from the user table at startup; emails registered on other instances are caught by the unique index instead.
+ */
+@Component
+public class RegisteredEmailFilter {
+
+    private final UserRepository userRepository;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final AtomicLong size = new AtomicLong();
+
+    private final BloomFilter filter;
+
+    public RegisteredEmailFilter(UserRepository userRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${security.registration.expected-users:1000000}") long expectedEmails,
+                                 @Value("${security.registration.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.filter = new BloomFilter(expectedEmails, falsePositiveRate);
+        meterRegistry.gauge("auth.register.prefilter.size", size);
+    }
+
+    /**
+     * Fill the filter with every registered email; emails added while loading are kept
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<String> emails = userRepository.streamEmails()) {
+                emails.forEach(this::add);
+            }
+        });
+    }
+
+    /**
+     * Check whether an email may be registered; false means it certainly is not
+     */
+    public boolean mightBeRegistered(String email) {
+        return email != null && filter.mightContain(normalize(email));
+    }
+
+    /**
+     * Record a registered email
+     */
+    public void add(String email) {
+        if (email != null) {
+            filter.put(normalize(email));
+            size.incrementAndGet();
+        }
+    }
+
+    private static String normalize(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,97 @@
+package com.flexfolio.backend.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counters for authentication outcomes
+ * auth.login{result} for password logins, auth.register{result} for signups, auth.refresh{result} for refresh
+ * token exchanges and
+ * auth.jwt.validations{outcome} for bearer tokens seen by the filter.
+ */
+@Component
+public class SecurityMetrics {
+
+    private final Counter loginSuccess;
+    private final Counter loginFailure;
+    private final Counter registrationSuccess;
+    private final Counter registrationPrefiltered;
+    private final Counter registrationConflict;
+    private final Counter refreshSuccess;
+    private final Counter refreshInvalid;
+    private final Counter refreshReused;
+    private final Counter jwtValid;
+    private final Counter jwtInvalid;
+    private final Counter jwtAbsent;
+    private final Counter jwtRevoked;
+
+    public SecurityMetrics(MeterRegistry meterRegistry) {
+        this.loginSuccess = meterRegistry.counter("auth.login", "result", "success");
+        this.loginFailure = meterRegistry.counter("auth.login", "result", "failure");
+        this.registrationSuccess = meterRegistry.counter("auth.register", "result", "success");
+        this.registrationPrefiltered = meterRegistry.counter("auth.register", "result", "duplicate_prefiltered");
+        this.registrationConflict = meterRegistry.counter("auth.register", "result", "duplicate_constraint");
+        this.refreshSuccess = meterRegistry.counter("auth.refresh", "result", "success");
+        this.refreshInvalid = meterRegistry.counter("auth.refresh", "result", "invalid");
+        this.refreshReused = meterRegistry.counter("auth.refresh", "result", "reused");
+        this.jwtValid = meterRegistry.counter("auth.jwt.validations", "outcome", "valid");
+        this.jwtInvalid = meterRegistry.counter("auth.jwt.validations", "outcome", "invalid");
+        this.jwtAbsent = meterRegistry.counter("auth.jwt.validations", "outcome", "absent");
+        this.jwtRevoked = meterRegistry.counter("auth.jwt.validations", "outcome", "revoked");
+    }
+
+    public void loginSucceeded() {
+        loginSuccess.increment();
+    }
+
+    public void loginFailed() {
+        loginFailure.increment();
+    }
+
+    public void registrationSucceeded() {
+        registrationSuccess.increment();
+    }
+
+    /**
+     * Duplicate email caught by the prefilter, before the password was hashed
+     */
+    public void registrationRejected() {
+        registrationPrefiltered.increment();
+    }
+
+    /**
+     * Duplicate email caught by the unique index, after the password was hashed
+     */
+    public void registrationConflicted() {
+        registrationConflict.increment();
+    }
+
+    public void refreshSucceeded() {
+        refreshSuccess.increment();
+    }
+
+    public void refreshInvalid() {
+        refreshInvalid.increment();
+    }
+
+    public void refreshReused() {
+        refreshReused.increment();
+    }
+
+    public void jwtValid() {
+        jwtValid.increment();
+    }
+
+    public void jwtInvalid() {
+        jwtInvalid.increment();
+    }
+
+    public void jwtAbsent() {
+        jwtAbsent.increment();
+    }
+
+    public void jwtRevoked() {
+        jwtRevoked.increment();
+    }
+}
@@ -0,0 +1,65 @@
+package com.flexfolio.backend.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket
+ * Kept as a single "theoretical arrival time" (GCRA): taking a token moves it forward by one refill
+ * interval, and a request is admitted while it stays within capacity intervals of now. One CAS per
+ * admission, no lock and no background refill.
+ */
+final class TokenBucket {
+
+    private final long intervalNanos;
+
+    private final long burstNanos;
+
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(int capacity, double refillPerSecond, long now) {
+        this.intervalNanos = Math.max(1L, (long) (1_000_000_000L / refillPerSecond));
+        this.burstNanos = intervalNanos * capacity;
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    /**
+     * Take one token
+     * @return 0 when a token was taken, otherwise the nanoseconds until one is available
+     */
+    long tryAcquire(long now) {
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long next = Math.max(arrival, now) + intervalNanos;
+            long wait = next - burstNanos - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, next)) {
+                return 0L;
+            }
+        }
+    }
+
+    /**
+     * Give back a token taken by tryAcquire, when the request was rejected by another bucket
+     */
+    void refund() {
+        theoreticalArrival.addAndGet(-intervalNanos);
+    }
+
+    int remaining(long now) {
+        long arrival = Math.max(theoreticalArrival.get(), now);
+        return (int) ((now + burstNanos - arrival) / intervalNanos);
+    }
+
+    long nanosUntilFull(long now) {
+        return Math.max(0L, theoreticalArrival.get() - now);
+    }
+
+    /**
+     * A full bucket carries no state: dropping it and creating a new one later is equivalent
+     */
+    boolean isFull(long now) {
+        return theoreticalArrival.get() <= now;
+    }
+}
@@ -0,0 +1,203 @@
+package com.flexfolio.backend.security;
+
+import com.flexfolio.backend.model.RevokedTokenEntity;
+import com.flexfolio.backend.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Denylist of revoked JWTs, by jti
+ * Revocations are persisted in revoked_token and mirrored in an in-memory Bloom filter. The filter answers
+ * almost every check on its own in constant time; only a possible match costs a primary-key lookup to tell
+ * a revoked token from a false positive. Bloom filters cannot forget, so there are two generations, each
+ * living one token lifetime: new revocations go to the current one, checks consult both, and on rotation the
+ * previous one is dropped. A revocation therefore stays visible for at least one token lifetime, by which
+ * time the token has expired. The filter is rebuilt from the table at startup, revocations made by other
+ * instances are pulled every sync interval, and expired rows are purged on rotation. Database checks and syncs
+ * run in read-write transactions so they are answered by the primary, never by a lagging replica.
+ */
+@Slf4j
+@Component
+public class TokenDenylist {
+
+    /**
+     * Slack when pulling other instances' revocations, for clock skew and transactions committing late
+     */
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(5);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final long expectedRevocations;
+
+    private final double falsePositiveRate;
+
+    private final long tokenLifetimeMs;
+
+    private final long syncIntervalSeconds;
+
+    private final Counter filterMisses;
+
+    private final Counter falsePositives;
+
+    private final Counter revokedHits;
+
+    private final Counter syncFailures;
+
+    private final Counter purgeFailures;
+
+    private volatile Generations generations;
+
+    /**
+     * False until the filter holds every persisted revocation; until then every check goes to the database
+     */
+    private volatile boolean loaded;
+
+    private volatile Instant lastSync;
+
+    private ScheduledExecutorService maintenance;
+
+    public TokenDenylist(RevokedTokenRepository revokedTokenRepository,
+                         PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry,
+                         @Value("${jwt.revocation.expected-revocations:100000}") long expectedRevocations,
+                         @Value("${jwt.revocation.false-positive-rate:0.001}") double falsePositiveRate,
+                         @Value("${jwt.revocation.sync-interval-seconds:30}") long syncIntervalSeconds,
+                         @Value("${jwt.expiration}") long tokenLifetimeMs) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.syncIntervalSeconds = syncIntervalSeconds;
+        this.tokenLifetimeMs = tokenLifetimeMs;
+        this.generations = new Generations(newFilter(), newFilter());
+        this.filterMisses = meterRegistry.counter("auth.jwt.revocation.checks", "result", "filter_miss");
+        this.falsePositives = meterRegistry.counter("auth.jwt.revocation.checks", "result", "false_positive");
+        this.revokedHits = meterRegistry.counter("auth.jwt.revocation.checks", "result", "revoked");
+        this.syncFailures = meterRegistry.counter("auth.jwt.revocation.maintenance.failures", "task", "sync");
+        this.purgeFailures = meterRegistry.counter("auth.jwt.revocation.maintenance.failures", "task", "purge");
+    }
+
+    /**
+     * Check whether a token id has been revoked
+     */
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        Generations current = generations;
+        if (loaded && !current.active.mightContain(jti) && !current.previous.mightContain(jti)) {
+            filterMisses.increment();
+            return false;
+        }
+        // On the primary (read-write transaction): a replica may not have the revocation yet
+        if (Boolean.TRUE.equals(transactionTemplate.execute(status -> revokedTokenRepository.existsById(jti)))) {
+            revokedHits.increment();
+            return true;
+        }
+        falsePositives.increment();
+        return false;
+    }
+
+    /**
+     * Revoke a token until it expires; revoking an expired or already revoked token does nothing
+     */
+    public void revoke(String jti, Long userId, Instant expiresAt) {
+        Instant now = Instant.now();
+        if (jti == null || expiresAt == null || !expiresAt.isAfter(now)) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!revokedTokenRepository.existsById(jti)) {
+                revokedTokenRepository.save(new RevokedTokenEntity(jti, userId, expiresAt, now));
+            }
+        });
+        generations.active.put(jti);
+    }
+
+    /**
+     * Rebuild the filter from the persisted revocations, then start rotation and sync
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Instant now = Instant.now();
+        BloomFilter active = newFilter();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<String> ids = revokedTokenRepository.streamUnexpiredIds(now)) {
+                ids.forEach(active::put);
+            }
+        });
+        // Revocations made on this instance while loading are in the old active filter; keep it one generation
+        generations = new Generations(active, generations.active);
+        lastSync = now.minus(SYNC_OVERLAP);
+        loaded = true;
+
+        maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jwt-denylist-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        maintenance.scheduleWithFixedDelay(this::sync, syncIntervalSeconds, syncIntervalSeconds, TimeUnit.SECONDS);
+        maintenance.scheduleWithFixedDelay(this::rotate, tokenLifetimeMs, tokenLifetimeMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (maintenance != null) {
+            maintenance.shutdownNow();
+        }
+    }
+
+    /**
+     * Pull revocations made by other instances since the last sync
+     */
+    private void sync() {
+        try {
+            Instant now = Instant.now();
+            transactionTemplate.execute(status -> revokedTokenRepository.findIdsRevokedSince(lastSync, now))
+                .forEach(generations.active::put);
+            lastSync = now.minus(SYNC_OVERLAP);
+        } catch (RuntimeException e) {
+            // Keep the schedule alive; the next sync covers the same window again
+            syncFailures.increment();
+            log.warn("Could not pull revoked tokens since {}; retrying in {}s", lastSync, syncIntervalSeconds, e);
+        }
+    }
+
+    /**
+     * Start a new generation, dropping the one older than a token lifetime, and purge expired rows
+     */
+    private void rotate() {
+        generations = new Generations(newFilter(), generations.active);
+        try {
+            transactionTemplate.executeWithoutResult(status -> revokedTokenRepository.deleteExpired(Instant.now()));
+        } catch (RuntimeException e) {
+            // Expired rows are harmless; the next rotation purges them
+            purgeFailures.increment();
+            log.warn("Could not purge expired revoked tokens", e);
+        }
+    }
+
+    private BloomFilter newFilter() {
+        return new BloomFilter(expectedRevocations, falsePositiveRate);
+    }
+
+    private record Generations(BloomFilter active, BloomFilter previous) {
+    }
+}
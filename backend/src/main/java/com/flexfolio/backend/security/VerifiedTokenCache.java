@@ -0,0 +1,93 @@
+package com.flexfolio.backend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of already verified JWTs
+ * Keyed by the SHA-256 digest of the token so raw bearer tokens are never kept in memory.
+ * Each entry expires with its token's exp claim, so a cached principal is never served past it;
+ * once full, Caffeine evicts by frequency and recency in amortized constant time.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final Cache<String, JwtPrincipal> entries;
+
+    public VerifiedTokenCache(@Value("${jwt.cache.max-size:10000}") long maxSize) {
+        this.entries = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(new UntilTokenExpiry())
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * Get the cached principal for a token, or null if absent or expired
+     */
+    public JwtPrincipal get(String token) {
+        return entries.getIfPresent(digest(token));
+    }
+
+    /**
+     * Remember a verified principal for its token
+     */
+    public void put(String token, JwtPrincipal principal) {
+        entries.put(digest(token), principal);
+    }
+
+    public long getHitCount() {
+        return entries.stats().hitCount();
+    }
+
+    public long getMissCount() {
+        return entries.stats().missCount();
+    }
+
+    public long size() {
+        return entries.estimatedSize();
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Expire each entry at its token's exp claim; tokens without one only leave by size eviction
+     */
+    private static final class UntilTokenExpiry implements Expiry<String, JwtPrincipal> {
+
+        @Override
+        public long expireAfterCreate(String key, JwtPrincipal principal, long currentTime) {
+            if (principal.getExpiration() == null) {
+                return Long.MAX_VALUE;
+            }
+            long remainingMs = principal.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMs, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, JwtPrincipal principal, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, principal, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, JwtPrincipal principal, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
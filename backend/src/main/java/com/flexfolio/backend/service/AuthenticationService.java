@@ -4,26 +4,39 @@ import com.flexfolio.backend.dto.LoginRequestDto;
 import com.flexfolio.backend.dto.JwtResponseDto;
 import com.flexfolio.backend.model.UserEntity;
 import com.flexfolio.backend.repository.UserRepository;
+import com.flexfolio.backend.security.AuthenticatedUser;
+import com.flexfolio.backend.security.CustomUserDetailsService;
+import com.flexfolio.backend.security.EmailAlreadyRegisteredException;
+import com.flexfolio.backend.security.JwtPrincipal;
 import com.flexfolio.backend.security.JwtTokenProvider;
+import com.flexfolio.backend.security.PasswordHashingExecutor;
+import com.flexfolio.backend.security.RegisteredEmailFilter;
+import com.flexfolio.backend.security.SecurityMetrics;
+import com.flexfolio.backend.security.TokenDenylist;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.AuthenticationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Authentication Service
- * Handles user login and JWT token generation
+ * Handles user login, refresh token exchange and JWT token generation
  */
 @Service
 @RequiredArgsConstructor
+@Timed(value = "flexfolio.service", histogram = true)
 public class AuthenticationService {
 
-    private final AuthenticationManager authenticationManager;
+    private static final String UNIQUE_VIOLATION = "23505";
 
     private final UserRepository userRepository;
 
@@ -31,55 +44,197 @@ public class AuthenticationService {
 
     private final PasswordEncoder passwordEncoder;
 
-    @Value("${jwt.expiration:86400000}")
+    private final PasswordHashingExecutor passwordHashingExecutor;
+
+    private final SecurityMetrics securityMetrics;
+
+    private final TokenDenylist tokenDenylist;
+
+    private final RefreshTokenService refreshTokenService;
+
+    private final RegisteredEmailFilter registeredEmailFilter;
+
+    private final CustomUserDetailsService userDetailsService;
+
+    @Value("${jwt.expiration:900000}")
     private long jwtExpirationMs;
 
+    private volatile String unknownUserHash;
+
     /**
      * Authenticate user and generate JWT token
+     * The user is loaded on the request thread; only the BCrypt check (and a rehash under the current policy) runs
+     * on the bounded hashing pool, so hashing workers never wait for the database. The request thread is not held
+     * while the hash runs. An unknown email is checked against a dummy hash so it takes as long as a wrong password.
+     */
+    public CompletableFuture<JwtResponseDto> login(LoginRequestDto loginRequest) {
+        AuthenticatedUser user = findUser(loginRequest.getEmail());
+        String rawPassword = loginRequest.getPassword();
+        return passwordHashingExecutor.submit(() -> checkPassword(rawPassword, user))
+            .thenApply(check -> {
+                if (user == null || !check.matches()) {
+                    securityMetrics.loginFailed();
+                    throw new BadCredentialsException("Bad credentials");
+                }
+                securityMetrics.loginSucceeded();
+                if (check.upgradedHash() != null) {
+                    userDetailsService.updatePassword(user, check.upgradedHash());
+                }
+                // The user id comes with the loaded details: no second user lookup
+                String accessTokenId = UUID.randomUUID().toString();
+                return tokens(user.getUserId(), user.getUsername(), accessTokenId,
+                    refreshTokenService.issue(user.getUserId(), accessTokenId));
+            });
+    }
+
+    /**
+     * Outcome of a password check, with the password re-encoded when the stored hash is below the current policy
+     */
+    private record PasswordCheck(boolean matches, String upgradedHash) {
+    }
+
+    /**
+     * Load the user logging in (read-only, on a replica when one is configured); null when the email is unknown
+     */
+    private AuthenticatedUser findUser(String email) {
+        if (email == null) {
+            return null;
+        }
+        try {
+            return (AuthenticatedUser) userDetailsService.loadUserByUsername(email);
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+    }
+
+    /**
+     * BCrypt work of a login, run on the hashing pool
+     */
+    private PasswordCheck checkPassword(String rawPassword, AuthenticatedUser user) {
+        if (rawPassword == null) {
+            return new PasswordCheck(false, null);
+        }
+        if (user == null) {
+            passwordEncoder.matches(rawPassword, unknownUserHash());
+            return new PasswordCheck(false, null);
+        }
+        if (!passwordEncoder.matches(rawPassword, user.getPassword())) {
+            return new PasswordCheck(false, null);
+        }
+        String upgradedHash = passwordEncoder.upgradeEncoding(user.getPassword()) ? passwordEncoder.encode(rawPassword) : null;
+        return new PasswordCheck(true, upgradedHash);
+    }
+
+    /**
+     * Hash compared against for unknown emails, encoded once under the current policy
+     */
+    private String unknownUserHash() {
+        String hash = unknownUserHash;
+        if (hash == null) {
+            hash = passwordEncoder.encode(UUID.randomUUID().toString());
+            unknownUserHash = hash;
+        }
+        return hash;
+    }
+
+    /**
+     * Exchange a refresh token for a new access token and the next refresh token
+     * One locked primary-key lookup (token joined with its user) and one HMAC signature; no password hashing.
+     * The access token issued with the refresh token (expired or not) is only read for a repeat within the grace window.
+     * @return empty if the refresh token is unknown, expired or already used
      */
-    public JwtResponseDto login(LoginRequestDto loginRequest) throws AuthenticationException {
-        // Authenticate user
-        Authentication authentication = authenticationManager.authenticate(
-            new UsernamePasswordAuthenticationToken(
-                loginRequest.getEmail(),
-                loginRequest.getPassword()
-            )
-        );
-
-        // Generate JWT token
-        String jwt = tokenProvider.generateToken(authentication.getName());
-
-        // Get user details
-        UserEntity user = userRepository.findByEmail(loginRequest.getEmail())
-            .orElseThrow(() -> new RuntimeException("User not found"));
-
-        // Calculate expiration time in seconds
-        long expiresIn = jwtExpirationMs / 1000;
-
-        return new JwtResponseDto(jwt, user.getId(), user.getEmail(), expiresIn);
+    public Optional<JwtResponseDto> refresh(String refreshToken, String accessToken) {
+        if (refreshToken == null || refreshToken.isEmpty()) {
+            return Optional.empty();
+        }
+        String presentedAccessTokenId = accessToken == null || accessToken.isEmpty()
+            ? null : tokenProvider.getTokenIdAllowingExpiry(accessToken).orElse(null);
+        String accessTokenId = UUID.randomUUID().toString();
+        return refreshTokenService.rotate(refreshToken, presentedAccessTokenId, accessTokenId)
+            .map(issued -> tokens(issued.userId(), issued.email(), accessTokenId, issued.token()));
+    }
+
+    /**
+     * Short-lived access token plus the refresh token issued with it, with their lifetimes in seconds
+     */
+    private JwtResponseDto tokens(Long userId, String email, String accessTokenId, String refreshToken) {
+        String jwt = tokenProvider.generateToken(email, userId, accessTokenId);
+        return new JwtResponseDto(jwt, userId, email, jwtExpirationMs / 1000,
+            refreshToken, refreshTokenService.getRefreshExpirationMs() / 1000);
     }
 
     /**
      * Register new user
+     * One INSERT; the unique index on lower(email) decides conflicts, so concurrent signups cannot both succeed.
+     * Emails the prefilter knows are confirmed with one indexed lookup and rejected before BCrypt runs.
      */
-    public UserEntity register(UserEntity user) {
-        // Check if user already exists
-        if (userRepository.findByEmail(user.getEmail()).isPresent()) {
-            throw new RuntimeException("Email already registered");
+    public CompletableFuture<UserEntity> register(UserEntity user) {
+        if (registeredEmailFilter.mightBeRegistered(user.getEmail()) && userRepository.existsByEmail(user.getEmail())) {
+            securityMetrics.registrationRejected();
+            return CompletableFuture.failedFuture(new EmailAlreadyRegisteredException());
         }
 
-        // Encode password
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        // Encode password on the bounded hashing pool, then insert
+        String rawPassword = user.getPassword();
+        return passwordHashingExecutor.submit(() -> passwordEncoder.encode(rawPassword))
+            .thenApply(encodedPassword -> {
+                user.setPassword(encodedPassword);
+                return save(user);
+            });
+    }
 
-        // Save user
-        return userRepository.save(user);
+    /**
+     * Insert the user; a unique violation on the email becomes {@link EmailAlreadyRegisteredException}
+     */
+    private UserEntity save(UserEntity user) {
+        UserEntity savedUser;
+        try {
+            savedUser = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            if (!isUniqueViolation(e)) {
+                throw e;
+            }
+            securityMetrics.registrationConflicted();
+            registeredEmailFilter.add(user.getEmail());
+            throw new EmailAlreadyRegisteredException();
+        }
+        registeredEmailFilter.add(savedUser.getEmail());
+        securityMetrics.registrationSucceeded();
+        return savedUser;
+    }
+
+    /**
+     * Revoke the access token a principal was read from (rejected from now until it expires) and the family of
+     * the refresh token, when given; either may be null
+     */
+    public void revoke(JwtPrincipal principal, String refreshToken) {
+        if (principal != null) {
+            tokenDenylist.revoke(principal.getTokenId(), principal.getUserId(), principal.getExpiration().toInstant());
+        }
+        if (refreshToken != null && !refreshToken.isEmpty()) {
+            refreshTokenService.revoke(refreshToken);
+        }
+    }
+
+    /**
+     * Check whether a failed write broke a unique constraint (SQLState 23505); on user_ that can only be the email
+     */
+    private static boolean isUniqueViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && UNIQUE_VIOLATION.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
      * Validate JWT token
      */
     public boolean validateToken(String token) {
-        return tokenProvider.validateToken(token);
+        return tokenProvider.verify(token)
+            .filter(principal -> !tokenDenylist.isRevoked(principal.getTokenId()))
+            .isPresent();
     }
 
     /**
@@ -0,0 +1,378 @@
+package com.flexfolio.backend.service;
+
+import com.flexfolio.backend.dto.ChangeEventDto;
+import com.flexfolio.backend.model.PortfolioEntity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-user server-sent change feed
+ * Write services report changes here; events are sent only after the surrounding transaction commits,
+ * to every open stream of the portfolio's owner. A connection costs one SseEmitter and a small send queue in a
+ * per-user set: no thread is held while it is idle. One shared timer queues a heartbeat comment on idle streams so
+ * proxies keep them open and dead clients are dropped.
+ * Every write, events and heartbeats alike, runs on a small sender pool, one stream at a time and in order per
+ * stream, so a slow or stalled client never holds up the writer's response or the other streams. A write that
+ * takes longer than the send timeout closes its stream and the pool gets a thread in its place until that write
+ * returns. A stream whose queue (or the pool's) is full is closed instead: clients reconnect and reload rather than
+ * miss events silently.
+ */
+@Service
+public class ChangeFeedService {
+
+    /**
+     * Queue entry for a heartbeat comment (compared by identity)
+     */
+    private static final List<ChangeEventDto> PING = Collections.unmodifiableList(new ArrayList<>());
+
+    private final Map<Long, Set<Subscription>> subscriptionsByUser = new ConcurrentHashMap<>();
+
+    private final AtomicInteger connections = new AtomicInteger();
+
+    private final ScheduledExecutorService timer;
+
+    private final ThreadPoolExecutor sender;
+
+    private final Counter dropped;
+
+    private final Counter stalled;
+
+    private final long streamTimeoutMs;
+
+    private final long sendTimeoutNanos;
+
+    private final int streamQueueCapacity;
+
+    public ChangeFeedService(MeterRegistry meterRegistry,
+                             @Value("${changes.stream-timeout-ms:1800000}") long streamTimeoutMs,
+                             @Value("${changes.heartbeat-seconds:25}") long heartbeatSeconds,
+                             @Value("${changes.sender-threads:2}") int senderThreads,
+                             @Value("${changes.send-queue-capacity:10000}") int sendQueueCapacity,
+                             @Value("${changes.stream-queue-capacity:1000}") int streamQueueCapacity,
+                             @Value("${changes.send-timeout-ms:10000}") long sendTimeoutMs) {
+        this.streamTimeoutMs = streamTimeoutMs;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        this.streamQueueCapacity = streamQueueCapacity;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "change-feed-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.scheduleWithFixedDelay(this::sendHeartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+        long checkMs = Math.max(sendTimeoutMs / 2, 100);
+        timer.scheduleWithFixedDelay(this::closeStalled, checkMs, checkMs, TimeUnit.MILLISECONDS);
+        AtomicInteger senderIndex = new AtomicInteger();
+        this.sender = new ThreadPoolExecutor(senderThreads, senderThreads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(sendQueueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "change-feed-sender-" + senderIndex.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+        this.dropped = Counter.builder("flexfolio.changes.dropped")
+            .description("Streams closed because their send queue or the sender queue was full")
+            .register(meterRegistry);
+        this.stalled = Counter.builder("flexfolio.changes.stalled")
+            .description("Streams closed because a write took longer than the send timeout")
+            .register(meterRegistry);
+        Gauge.builder("flexfolio.changes.queue.depth", sender, executor -> executor.getQueue().size())
+            .description("Streams waiting for a sender thread")
+            .register(meterRegistry);
+        Gauge.builder("flexfolio.changes.connections", connections, AtomicInteger::get)
+            .description("Open change feed streams")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Open a stream for a user; it ends after the stream timeout and clients are expected to reconnect
+     */
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        Subscription subscription = new Subscription(userId, emitter);
+        subscriptionsByUser.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(subscription);
+        connections.incrementAndGet();
+        emitter.onCompletion(subscription::ended);
+        emitter.onTimeout(subscription::ended);
+        emitter.onError(error -> subscription.ended());
+        return emitter;
+    }
+
+    /**
+     * Report changes to entities of a portfolio; sent to the owner once the transaction commits
+     */
+    public void portfolioChanged(PortfolioEntity portfolio, String type, Collection<Long> ids, String operation) {
+        portfolioChanged(portfolio.getUser().getId(), portfolio.getId(), portfolio.getVersion(), type, ids, operation);
+    }
+
+    /**
+     * Report that a portfolio is gone for a user (deleted, or moved to another owner)
+     */
+    public void portfolioRemoved(Long userId, Long portfolioId) {
+        ChangeEventDto event = new ChangeEventDto(ChangeEventDto.PORTFOLIO, portfolioId, portfolioId, ChangeEventDto.DELETED, null);
+        afterCommit(() -> dispatch(userId, List.of(event)));
+    }
+
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+        sender.shutdownNow();
+        subscriptionsByUser.values().forEach(subscriptions -> subscriptions.forEach(subscription -> subscription.close(null)));
+    }
+
+    private void portfolioChanged(Long userId, Long portfolioId, Long version, String type, Collection<Long> ids, String operation) {
+        List<ChangeEventDto> events = ids.stream()
+            .map(id -> new ChangeEventDto(type, id, portfolioId, operation, version))
+            .toList();
+        afterCommit(() -> dispatch(userId, events));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Queue events on each of the owner's streams
+     */
+    private void dispatch(Long userId, List<ChangeEventDto> events) {
+        Set<Subscription> subscriptions = subscriptionsByUser.get(userId);
+        if (subscriptions != null && !events.isEmpty()) {
+            subscriptions.forEach(subscription -> subscription.offer(events));
+        }
+    }
+
+    /**
+     * Queue a heartbeat on every idle stream; a stream with a write queued or in progress needs none
+     */
+    private void sendHeartbeat() {
+        subscriptionsByUser.values().forEach(subscriptions -> subscriptions.forEach(subscription -> {
+            if (!subscription.isBusy()) {
+                subscription.offer(PING);
+            }
+        }));
+    }
+
+    private void closeStalled() {
+        long now = System.nanoTime();
+        subscriptionsByUser.values().forEach(subscriptions -> subscriptions.forEach(subscription -> {
+            long since = subscription.writingSince;
+            if (since != 0 && now - since > sendTimeoutNanos) {
+                subscription.stalled();
+            }
+        }));
+    }
+
+    private void remove(Subscription subscription) {
+        subscriptionsByUser.computeIfPresent(subscription.userId, (id, subscriptions) -> {
+            if (subscriptions.remove(subscription)) {
+                connections.decrementAndGet();
+            }
+            return subscriptions.isEmpty() ? null : subscriptions;
+        });
+    }
+
+    /**
+     * Resize the sender pool by one thread, up or down
+     */
+    private synchronized void resizeSender(int delta) {
+        int size = sender.getCorePoolSize() + delta;
+        if (delta > 0) {
+            sender.setMaximumPoolSize(size);
+            sender.setCorePoolSize(size);
+        } else {
+            sender.setCorePoolSize(size);
+            sender.setMaximumPoolSize(size);
+        }
+    }
+
+    /**
+     * One open stream and its send queue
+     * At most one sender task per stream is queued or running, so writes stay in order. The emitter is completed
+     * by that task when one is active (the emitter's methods lock it while a write is in progress) and by the
+     * closing thread otherwise.
+     */
+    private final class Subscription implements Runnable {
+
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final Queue<List<ChangeEventDto>> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final AtomicBoolean completed = new AtomicBoolean();
+        private volatile long writingSince;
+        private Thread writer;
+        private boolean compensated;
+        private volatile Throwable closeCause;
+
+        private Subscription(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        boolean isBusy() {
+            return scheduled.get();
+        }
+
+        void offer(List<ChangeEventDto> events) {
+            if (closed.get()) {
+                return;
+            }
+            if (pendingCount.incrementAndGet() > streamQueueCapacity) {
+                dropped.increment();
+                close(null);
+                return;
+            }
+            pending.add(events);
+            schedule();
+        }
+
+        private void schedule() {
+            if (closed.get() || !scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                sender.execute(this);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+                dropped.increment();
+                close(null);
+            }
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                writer = Thread.currentThread();
+            }
+            try {
+                List<ChangeEventDto> events;
+                while (!closed.get() && (events = pending.poll()) != null) {
+                    pendingCount.decrementAndGet();
+                    writingSince = System.nanoTime();
+                    write(events);
+                    writingSince = 0;
+                }
+            } catch (IOException | IllegalStateException e) {
+                close(e);
+            } finally {
+                writingSince = 0;
+                synchronized (this) {
+                    writer = null;
+                    if (compensated) {
+                        compensated = false;
+                        resizeSender(-1);
+                    }
+                }
+                scheduled.set(false);
+            }
+            if (closed.get()) {
+                complete();
+            } else if (!pending.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void write(List<ChangeEventDto> events) throws IOException {
+            if (events == PING) {
+                emitter.send(SseEmitter.event().comment("ping"));
+                return;
+            }
+            for (ChangeEventDto event : events) {
+                emitter.send(SseEmitter.event().name("change").data(event, MediaType.APPLICATION_JSON));
+            }
+        }
+
+        /**
+         * A write is taking longer than the send timeout: drop the stream now, interrupt the write and lend the
+         * pool a thread until it returns
+         */
+        synchronized void stalled() {
+            if (writer == null || compensated) {
+                return;
+            }
+            compensated = true;
+            stalled.increment();
+            resizeSender(1);
+            close(new TimeoutException("Change feed write stalled"));
+            writer.interrupt();
+        }
+
+        /**
+         * Stop sending and complete the emitter (with an error when there is a cause)
+         */
+        void close(Throwable cause) {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            closeCause = cause;
+            pending.clear();
+            remove(this);
+            if (!scheduled.get()) {
+                complete();
+            }
+        }
+
+        /**
+         * The emitter ended on its own (client gone, timeout, completion)
+         */
+        void ended() {
+            completed.set(true);
+            closed.set(true);
+            pending.clear();
+            remove(this);
+        }
+
+        private void complete() {
+            if (!completed.compareAndSet(false, true)) {
+                return;
+            }
+            if (closeCause == null) {
+                emitter.complete();
+            } else {
+                emitter.completeWithError(closeCause);
+            }
+        }
+    }
+}
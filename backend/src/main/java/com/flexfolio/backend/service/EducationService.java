@@ -1,100 +1,186 @@
 package com.flexfolio.backend.service;
 
+import com.flexfolio.backend.datasource.ReadOnlyTransactional;
+import com.flexfolio.backend.dto.ChangeEventDto;
+import com.flexfolio.backend.dto.CursorPageDto;
 import com.flexfolio.backend.dto.EducationDto;
 import com.flexfolio.backend.mapper.EntityMapper;
 import com.flexfolio.backend.model.EducationEntity;
 import com.flexfolio.backend.model.PortfolioEntity;
+import com.flexfolio.backend.pagination.Cursor;
 import com.flexfolio.backend.repository.EducationRepository;
-import com.flexfolio.backend.repository.PortfolioRepository;
+import com.flexfolio.backend.security.PortfolioOwnerIndex;
+import io.micrometer.core.annotation.Timed;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "flexfolio.service", histogram = true)
 public class EducationService {
 
     private final EducationRepository educationRepository;
 
-    private final PortfolioRepository portfolioRepository;
+    private final PortfolioService portfolioService;
+
+    private final PortfolioDocumentService portfolioDocumentService;
+
+    private final SearchService searchService;
+
+    private final ChangeFeedService changeFeedService;
+
+    private final PortfolioOwnerIndex portfolioOwnerIndex;
 
     private final EntityMapper entityMapper;
 
     /**
      * Create a new education for a portfolio
      */
+    @Transactional
     public EducationDto createEducation(EducationEntity education, Long portfolioId) {
-        PortfolioEntity portfolio = portfolioRepository.findById(portfolioId)
-            .orElseThrow(() -> new RuntimeException("Portfolio not found with id: " + portfolioId));
+        PortfolioEntity portfolio = portfolioService.markChanged(portfolioId);
         education.setPortfolio(portfolio);
         education.validateOngoing();
         EducationEntity savedEducation = educationRepository.save(education);
-        return entityMapper.toEducationDto(savedEducation);
+        EducationDto createdEducation = entityMapper.toEducationDto(savedEducation);
+        portfolioDocumentService.educationsSaved(portfolio, List.of(createdEducation));
+        searchService.educationsSaved(List.of(savedEducation.getIdEdu()));
+        portfolioOwnerIndex.educationsSaved(portfolioId, List.of(savedEducation.getIdEdu()));
+        changeFeedService.portfolioChanged(portfolio, ChangeEventDto.EDUCATION, List.of(createdEducation.getId()), ChangeEventDto.CREATED);
+        return createdEducation;
+    }
+
+    /**
+     * Create several educations for a portfolio in one transaction
+     * The portfolio is checked once and the inserts are sent as JDBC batches.
+     */
+    @Transactional
+    public List<EducationDto> createEducations(List<EducationEntity> educations, Long portfolioId) {
+        PortfolioEntity portfolio = portfolioService.markChanged(portfolioId);
+        for (EducationEntity education : educations) {
+            education.setPortfolio(portfolio);
+            education.validateOngoing();
+        }
+        List<EducationEntity> savedEducations = educationRepository.saveAll(educations);
+        List<EducationDto> createdEducations = entityMapper.toEducationDtoList(savedEducations);
+        portfolioDocumentService.educationsSaved(portfolio, createdEducations);
+        searchService.educationsSaved(createdEducations.stream().map(EducationDto::getId).toList());
+        portfolioOwnerIndex.educationsSaved(portfolioId, createdEducations.stream().map(EducationDto::getId).toList());
+        changeFeedService.portfolioChanged(portfolio, ChangeEventDto.EDUCATION, createdEducations.stream().map(EducationDto::getId).toList(), ChangeEventDto.CREATED);
+        return createdEducations;
     }
 
     /**
      * Get education by ID
      */
+    @ReadOnlyTransactional
     public Optional<EducationDto> getEducationById(Long id) {
-        return educationRepository.findById(id)
-            .map(entityMapper::toEducationDto);
+        return educationRepository.findDtoById(id);
     }
 
     /**
      * Get all educations for a specific portfolio
      */
+    @ReadOnlyTransactional
     public List<EducationDto> getEducationsByPortfolioId(Long portfolioId) {
-        List<EducationEntity> educations = educationRepository.findByPortfolioId(portfolioId);
-        return entityMapper.toEducationDtoList(educations);
+        return educationRepository.findDtosByPortfolioId(portfolioId);
     }
 
     /**
-     * Get all educations
+     * Get one page of educations, ordered by id, starting after the given cursor
      */
-    public List<EducationDto> getAllEducations() {
-        List<EducationEntity> educations = educationRepository.findAll();
-        return entityMapper.toEducationDtoList(educations);
+    @ReadOnlyTransactional
+    public CursorPageDto<EducationDto> getAllEducations(String cursor, int limit) {
+        int pageSize = Cursor.clampLimit(limit);
+        List<EducationDto> educations = educationRepository.findDtosAfter(Cursor.decode(cursor), Limit.of(pageSize + 1));
+        return Cursor.page(educations, pageSize, EducationDto::getId, Function.identity());
     }
 
     /**
      * Update education
      */
+    @Transactional
     public EducationDto updateEducation(Long id, EducationEntity educationDetails) {
+        Long portfolioId = educationRepository.findPortfolioIdById(id)
+            .orElseThrow(() -> new RuntimeException("Education not found with id: " + id));
+        PortfolioEntity portfolio = portfolioService.markChanged(portfolioId);
         EducationEntity updatedEducation = educationRepository.findById(id).map(education -> {
-            if (educationDetails.getTitleOfQualification() != null) {
-                education.setTitleOfQualification(educationDetails.getTitleOfQualification());
-            }
-            if (educationDetails.getTraining() != null) {
-                education.setTraining(educationDetails.getTraining());
-            }
-            if (educationDetails.getCity() != null) {
-                education.setCity(educationDetails.getCity());
-            }
-            if (educationDetails.getCountry() != null) {
-                education.setCountry(educationDetails.getCountry());
-            }
-            if (educationDetails.getStartDate() != null) {
-                education.setStartDate(educationDetails.getStartDate());
-            }
-            if (educationDetails.getEndDate() != null) {
-                education.setEndDate(educationDetails.getEndDate());
-            }
-            if (educationDetails.getOngoing() != null) {
-                education.setOngoing(educationDetails.getOngoing());
-            }
-            education.validateOngoing();
+            copyNonNullFields(educationDetails, education);
             return educationRepository.save(education);
         }).orElseThrow(() -> new RuntimeException("Education not found with id: " + id));
 
-        return entityMapper.toEducationDto(updatedEducation);
+        EducationDto updatedEducationDto = entityMapper.toEducationDto(updatedEducation);
+        portfolioDocumentService.educationsSaved(portfolio, List.of(updatedEducationDto));
+        searchService.educationsSaved(List.of(id));
+        changeFeedService.portfolioChanged(portfolio, ChangeEventDto.EDUCATION, List.of(id), ChangeEventDto.UPDATED);
+        return updatedEducationDto;
+    }
+
+    /**
+     * Partially update education
+     * One UPDATE writes only the supplied columns, and the affected-row count decides on 404. The portfolio is
+     * locked and versioned through its entity, so the second-level cache only changes for these two rows.
+     */
+    @Transactional
+    public void patchEducation(Long id, EducationEntity educationDetails) {
+        Long portfolioId = portfolioOwnerIndex.portfolioOfEducation(id)
+            .orElseThrow(() -> new RuntimeException("Education not found with id: " + id));
+        PortfolioEntity portfolio = portfolioService.markChanged(portfolioId);
+        if (educationRepository.updateNonNullFields(id, portfolioId, educationDetails) == 0) {
+            throw new RuntimeException("Education not found with id: " + id);
+        }
+        portfolioDocumentService.educationPatched(portfolio, id, educationDetails);
+        if (educationDetails.getTitleOfQualification() != null || educationDetails.getTraining() != null) {
+            searchService.educationsSaved(List.of(id));
+        }
+        changeFeedService.portfolioChanged(portfolio, ChangeEventDto.EDUCATION, List.of(id), ChangeEventDto.UPDATED);
     }
 
     /**
      * Delete education by ID
      */
+    @Transactional
     public void deleteEducation(Long id) {
-        educationRepository.deleteById(id);
+        educationRepository.findPortfolioIdById(id).ifPresent(portfolioId -> {
+            PortfolioEntity portfolio = portfolioService.markChanged(portfolioId);
+            educationRepository.deleteById(id);
+            portfolioDocumentService.educationDeleted(portfolio, id);
+            searchService.educationDeleted(id);
+            portfolioOwnerIndex.educationDeleted(id);
+            changeFeedService.portfolioChanged(portfolio, ChangeEventDto.EDUCATION, List.of(id), ChangeEventDto.DELETED);
+        });
     }
-}
 
+    /**
+     * Copy the supplied (non-null) fields onto an education, then apply the ongoing/endDate rule
+     */
+    private static void copyNonNullFields(EducationEntity source, EducationEntity target) {
+        if (source.getTitleOfQualification() != null) {
+            target.setTitleOfQualification(source.getTitleOfQualification());
+        }
+        if (source.getTraining() != null) {
+            target.setTraining(source.getTraining());
+        }
+        if (source.getCity() != null) {
+            target.setCity(source.getCity());
+        }
+        if (source.getCountry() != null) {
+            target.setCountry(source.getCountry());
+        }
+        if (source.getStartDate() != null) {
+            target.setStartDate(source.getStartDate());
+        }
+        if (source.getEndDate() != null) {
+            target.setEndDate(source.getEndDate());
+        }
+        if (source.getOngoing() != null) {
+            target.setOngoing(source.getOngoing());
+        }
+        target.validateOngoing();
+    }
+}
@@ -1,103 +1,190 @@
 package com.flexfolio.backend.service;
 
+import com.flexfolio.backend.datasource.ReadOnlyTransactional;
+import com.flexfolio.backend.dto.ChangeEventDto;
+import com.flexfolio.backend.dto.CursorPageDto;
 import com.flexfolio.backend.dto.ExperienceDto;
 import com.flexfolio.backend.mapper.EntityMapper;
 import com.flexfolio.backend.model.ExperienceEntity;
 import com.flexfolio.backend.model.PortfolioEntity;
+import com.flexfolio.backend.pagination.Cursor;
 import com.flexfolio.backend.repository.ExperienceRepository;
-import com.flexfolio.backend.repository.PortfolioRepository;
+import com.flexfolio.backend.security.PortfolioOwnerIndex;
+import io.micrometer.core.annotation.Timed;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "flexfolio.service", histogram = true)
 public class ExperienceService {
 
     private final ExperienceRepository experienceRepository;
 
-    private final PortfolioRepository portfolioRepository;
+    private final PortfolioService portfolioService;
+
+    private final PortfolioDocumentService portfolioDocumentService;
+
+    private final SearchService searchService;
+
+    private final ChangeFeedService changeFeedService;
+
+    private final PortfolioOwnerIndex portfolioOwnerIndex;
 
     private final EntityMapper entityMapper;
 
     /**
      * Create a new experience for a portfolio
      */
+    @Transactional
     public ExperienceDto createExperience(ExperienceEntity experience, Long portfolioId) {
-        PortfolioEntity portfolio = portfolioRepository.findById(portfolioId)
-            .orElseThrow(() -> new RuntimeException("Portfolio not found with id: " + portfolioId));
+        PortfolioEntity portfolio = portfolioService.markChanged(portfolioId);
         experience.setPortfolio(portfolio);
         experience.validateOngoing();
         ExperienceEntity savedExperience = experienceRepository.save(experience);
-        return entityMapper.toExperienceDto(savedExperience);
+        ExperienceDto createdExperience = entityMapper.toExperienceDto(savedExperience);
+        portfolioDocumentService.experiencesSaved(portfolio, List.of(createdExperience));
+        searchService.experiencesSaved(List.of(savedExperience.getIdExp()));
+        portfolioOwnerIndex.experiencesSaved(portfolioId, List.of(savedExperience.getIdExp()));
+        changeFeedService.portfolioChanged(portfolio, ChangeEventDto.EXPERIENCE, List.of(createdExperience.getId()), ChangeEventDto.CREATED);
+        return createdExperience;
+    }
+
+    /**
+     * Create several experiences for a portfolio in one transaction
+     * The portfolio is checked once and the inserts are sent as JDBC batches.
+     */
+    @Transactional
+    public List<ExperienceDto> createExperiences(List<ExperienceEntity> experiences, Long portfolioId) {
+        PortfolioEntity portfolio = portfolioService.markChanged(portfolioId);
+        for (ExperienceEntity experience : experiences) {
+            experience.setPortfolio(portfolio);
+            experience.validateOngoing();
+        }
+        List<ExperienceEntity> savedExperiences = experienceRepository.saveAll(experiences);
+        List<ExperienceDto> createdExperiences = entityMapper.toExperienceDtoList(savedExperiences);
+        portfolioDocumentService.experiencesSaved(portfolio, createdExperiences);
+        searchService.experiencesSaved(createdExperiences.stream().map(ExperienceDto::getId).toList());
+        portfolioOwnerIndex.experiencesSaved(portfolioId, createdExperiences.stream().map(ExperienceDto::getId).toList());
+        changeFeedService.portfolioChanged(portfolio, ChangeEventDto.EXPERIENCE, createdExperiences.stream().map(ExperienceDto::getId).toList(), ChangeEventDto.CREATED);
+        return createdExperiences;
     }
 
     /**
      * Get experience by ID
      */
+    @ReadOnlyTransactional
     public Optional<ExperienceDto> getExperienceById(Long id) {
-        return experienceRepository.findById(id)
-            .map(entityMapper::toExperienceDto);
+        return experienceRepository.findDtoById(id);
     }
 
     /**
      * Get all experiences for a specific portfolio
      */
+    @ReadOnlyTransactional
     public List<ExperienceDto> getExperiencesByPortfolioId(Long portfolioId) {
-        List<ExperienceEntity> experiences = experienceRepository.findByPortfolioId(portfolioId);
-        return entityMapper.toExperienceDtoList(experiences);
+        return experienceRepository.findDtosByPortfolioId(portfolioId);
     }
 
     /**
-     * Get all experiences
+     * Get one page of experiences, ordered by id, starting after the given cursor
      */
-    public List<ExperienceDto> getAllExperiences() {
-        List<ExperienceEntity> experiences = experienceRepository.findAll();
-        return entityMapper.toExperienceDtoList(experiences);
+    @ReadOnlyTransactional
+    public CursorPageDto<ExperienceDto> getAllExperiences(String cursor, int limit) {
+        int pageSize = Cursor.clampLimit(limit);
+        List<ExperienceDto> experiences = experienceRepository.findDtosAfter(Cursor.decode(cursor), Limit.of(pageSize + 1));
+        return Cursor.page(experiences, pageSize, ExperienceDto::getId, Function.identity());
     }
 
     /**
      * Update experience
      */
+    @Transactional
     public ExperienceDto updateExperience(Long id, ExperienceEntity experienceDetails) {
+        Long portfolioId = experienceRepository.findPortfolioIdById(id)
+            .orElseThrow(() -> new RuntimeException("Experience not found with id: " + id));
+        PortfolioEntity portfolio = portfolioService.markChanged(portfolioId);
         ExperienceEntity updatedExperience = experienceRepository.findById(id).map(experience -> {
-            if (experienceDetails.getPosition() != null) {
-                experience.setPosition(experienceDetails.getPosition());
-            }
-            if (experienceDetails.getEmployer() != null) {
-                experience.setEmployer(experienceDetails.getEmployer());
-            }
-            if (experienceDetails.getCity() != null) {
-                experience.setCity(experienceDetails.getCity());
-            }
-            if (experienceDetails.getCountry() != null) {
-                experience.setCountry(experienceDetails.getCountry());
-            }
-            if (experienceDetails.getStartDate() != null) {
-                experience.setStartDate(experienceDetails.getStartDate());
-            }
-            if (experienceDetails.getEndDate() != null) {
-                experience.setEndDate(experienceDetails.getEndDate());
-            }
-            if (experienceDetails.getResponsibilities() != null) {
-                experience.setResponsibilities(experienceDetails.getResponsibilities());
-            }
-            if (experienceDetails.getOngoing() != null) {
-                experience.setOngoing(experienceDetails.getOngoing());
-            }
-            experience.validateOngoing();
+            copyNonNullFields(experienceDetails, experience);
             return experienceRepository.save(experience);
         }).orElseThrow(() -> new RuntimeException("Experience not found with id: " + id));
 
-        return entityMapper.toExperienceDto(updatedExperience);
+        ExperienceDto updatedExperienceDto = entityMapper.toExperienceDto(updatedExperience);
+        portfolioDocumentService.experiencesSaved(portfolio, List.of(updatedExperienceDto));
+        searchService.experiencesSaved(List.of(id));
+        changeFeedService.portfolioChanged(portfolio, ChangeEventDto.EXPERIENCE, List.of(id), ChangeEventDto.UPDATED);
+        return updatedExperienceDto;
+    }
+
+    /**
+     * Partially update experience
+     * One UPDATE writes only the supplied columns, and the affected-row count decides on 404. The portfolio is
+     * locked and versioned through its entity, so the second-level cache only changes for these two rows.
+     */
+    @Transactional
+    public void patchExperience(Long id, ExperienceEntity experienceDetails) {
+        Long portfolioId = portfolioOwnerIndex.portfolioOfExperience(id)
+            .orElseThrow(() -> new RuntimeException("Experience not found with id: " + id));
+        PortfolioEntity portfolio = portfolioService.markChanged(portfolioId);
+        if (experienceRepository.updateNonNullFields(id, portfolioId, experienceDetails) == 0) {
+            throw new RuntimeException("Experience not found with id: " + id);
+        }
+        portfolioDocumentService.experiencePatched(portfolio, id, experienceDetails);
+        if (experienceDetails.getPosition() != null || experienceDetails.getEmployer() != null
+                || experienceDetails.getResponsibilities() != null) {
+            searchService.experiencesSaved(List.of(id));
+        }
+        changeFeedService.portfolioChanged(portfolio, ChangeEventDto.EXPERIENCE, List.of(id), ChangeEventDto.UPDATED);
     }
 
     /**
      * Delete experience by ID
      */
+    @Transactional
     public void deleteExperience(Long id) {
-        experienceRepository.deleteById(id);
+        experienceRepository.findPortfolioIdById(id).ifPresent(portfolioId -> {
+            PortfolioEntity portfolio = portfolioService.markChanged(portfolioId);
+            experienceRepository.deleteById(id);
+            portfolioDocumentService.experienceDeleted(portfolio, id);
+            searchService.experienceDeleted(id);
+            portfolioOwnerIndex.experienceDeleted(id);
+            changeFeedService.portfolioChanged(portfolio, ChangeEventDto.EXPERIENCE, List.of(id), ChangeEventDto.DELETED);
+        });
     }
-}
 
+    /**
+     * Copy the supplied (non-null) fields onto an experience, then apply the ongoing/endDate rule
+     */
+    private static void copyNonNullFields(ExperienceEntity source, ExperienceEntity target) {
+        if (source.getPosition() != null) {
+            target.setPosition(source.getPosition());
+        }
+        if (source.getEmployer() != null) {
+            target.setEmployer(source.getEmployer());
+        }
+        if (source.getCity() != null) {
+            target.setCity(source.getCity());
+        }
+        if (source.getCountry() != null) {
+            target.setCountry(source.getCountry());
+        }
+        if (source.getStartDate() != null) {
+            target.setStartDate(source.getStartDate());
+        }
+        if (source.getEndDate() != null) {
+            target.setEndDate(source.getEndDate());
+        }
+        if (source.getResponsibilities() != null) {
+            target.setResponsibilities(source.getResponsibilities());
+        }
+        if (source.getOngoing() != null) {
+            target.setOngoing(source.getOngoing());
+        }
+        target.validateOngoing();
+    }
+}
@@ -0,0 +1,337 @@
+package com.flexfolio.backend.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.flexfolio.backend.dto.EducationDto;
+import com.flexfolio.backend.dto.ExperienceDto;
+import com.flexfolio.backend.dto.PortfolioDto;
+import com.flexfolio.backend.model.EducationEntity;
+import com.flexfolio.backend.model.ExperienceEntity;
+import com.flexfolio.backend.model.PortfolioDocumentEntity;
+import com.flexfolio.backend.model.PortfolioEntity;
+import com.flexfolio.backend.repository.EducationRepository;
+import com.flexfolio.backend.repository.ExperienceRepository;
+import com.flexfolio.backend.repository.PortfolioDocumentRepository;
+import com.flexfolio.backend.repository.PortfolioRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Maintains the materialized portfolio documents
+ * Write services call into this inside their own transaction, right after changing the relational rows,
+ * so a document always matches the portfolio version it is tagged with. Changes are applied incrementally
+ * to the stored document; a missing document is rebuilt from the relational tables.
+ */
+@Service
+@RequiredArgsConstructor
+@Timed(value = "flexfolio.service", histogram = true)
+public class PortfolioDocumentService {
+
+    private static final int REBUILD_BATCH_SIZE = 100;
+
+    private static final JsonFactory CBOR_FACTORY = new CBORFactory();
+
+    private static final JsonFactory SMILE_FACTORY = new SmileFactory();
+
+    /**
+     * How long an id without a portfolio is answered as not found without asking the database
+     */
+    private static final Duration MISSING_PORTFOLIO_TTL = Duration.ofSeconds(10);
+
+    private final Cache<Long, Boolean> missingPortfolios = Caffeine.newBuilder()
+        .maximumSize(10_000)
+        .expireAfterWrite(MISSING_PORTFOLIO_TTL)
+        .build();
+
+    private final PortfolioDocumentRepository documentRepository;
+
+    private final PortfolioRepository portfolioRepository;
+
+    private final ExperienceRepository experienceRepository;
+
+    private final EducationRepository educationRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Get the document of a portfolio, building it if it does not exist yet
+     * The lookup is a read-only transaction (replica when configured). Ids without a portfolio are remembered
+     * for a short while, so repeated requests for them neither query nor open a write transaction; only a
+     * portfolio that exists without a document is rebuilt.
+     */
+    public Optional<PortfolioDocumentEntity> getDocument(Long portfolioId) {
+        if (missingPortfolios.getIfPresent(portfolioId) != null) {
+            return Optional.empty();
+        }
+        Optional<PortfolioDocumentEntity> document = documentRepository.findById(portfolioId);
+        if (document.isPresent()) {
+            return document;
+        }
+        if (!portfolioRepository.existsById(portfolioId)) {
+            missingPortfolios.put(portfolioId, Boolean.TRUE);
+            return Optional.empty();
+        }
+        return transactionTemplate.execute(status -> rebuild(portfolioId));
+    }
+
+    /**
+     * Rebuild the document of a portfolio from the relational tables
+     */
+    @Transactional
+    public Optional<PortfolioDocumentEntity> rebuild(Long portfolioId) {
+        // Lock the portfolio so no write interleaves with the rebuild
+        if (portfolioRepository.findByIdForUpdate(portfolioId).isEmpty()) {
+            documentRepository.deleteById(portfolioId);
+            return Optional.empty();
+        }
+        return portfolioRepository.findDtoById(portfolioId).map(portfolio -> {
+            portfolio.setExperiences(new ArrayList<>(experienceRepository.findDtosByPortfolioId(portfolioId)));
+            portfolio.setEducations(new ArrayList<>(educationRepository.findDtosByPortfolioId(portfolioId)));
+            return documentRepository.save(new PortfolioDocumentEntity(portfolioId, portfolio.getVersion(), serialize(portfolio)));
+        });
+    }
+
+    /**
+     * Rebuild every document, one transaction per portfolio
+     * @return number of documents rebuilt
+     */
+    public int rebuildAll() {
+        int rebuilt = 0;
+        long after = 0L;
+        List<Long> ids;
+        do {
+            ids = portfolioRepository.findIdsAfter(after, Limit.of(REBUILD_BATCH_SIZE));
+            for (Long id : ids) {
+                transactionTemplate.executeWithoutResult(status -> rebuild(id));
+                rebuilt++;
+                after = id;
+            }
+        } while (ids.size() == REBUILD_BATCH_SIZE);
+        return rebuilt;
+    }
+
+    /**
+     * Store the document of a newly created portfolio
+     */
+    @Transactional
+    public void portfolioCreated(PortfolioDto portfolio) {
+        missingPortfolios.invalidate(portfolio.getId());
+        PortfolioDto document = new PortfolioDto(portfolio.getId(), portfolio.getUserId(), portfolio.getVersion());
+        if (portfolio.getExperiences() != null) {
+            document.getExperiences().addAll(portfolio.getExperiences());
+        }
+        if (portfolio.getEducations() != null) {
+            document.getEducations().addAll(portfolio.getEducations());
+        }
+        documentRepository.save(new PortfolioDocumentEntity(portfolio.getId(), portfolio.getVersion(), serialize(document)));
+    }
+
+    /**
+     * Reflect a change of the portfolio row itself
+     */
+    @Transactional
+    public void portfolioUpdated(PortfolioEntity portfolio) {
+        apply(portfolio, document -> document.setUserId(portfolio.getUser() != null ? portfolio.getUser().getId() : null));
+    }
+
+    @Transactional
+    public void portfolioDeleted(Long portfolioId) {
+        if (documentRepository.existsById(portfolioId)) {
+            documentRepository.deleteById(portfolioId);
+        }
+    }
+
+    /**
+     * Insert or replace experiences in the portfolio document
+     */
+    @Transactional
+    public void experiencesSaved(PortfolioEntity portfolio, List<ExperienceDto> experiences) {
+        apply(portfolio, document -> upsert(document.getExperiences(), experiences, ExperienceDto::getId));
+    }
+
+    /**
+     * Apply a partial update (non-null fields, ongoing/endDate rule) to an experience in the portfolio document
+     */
+    @Transactional
+    public void experiencePatched(PortfolioEntity portfolio, Long id, ExperienceEntity details) {
+        apply(portfolio, document -> document.getExperiences().stream()
+            .filter(experience -> id.equals(experience.getId()))
+            .forEach(experience -> {
+                if (details.getPosition() != null) {
+                    experience.setPosition(details.getPosition());
+                }
+                if (details.getEmployer() != null) {
+                    experience.setEmployer(details.getEmployer());
+                }
+                if (details.getCity() != null) {
+                    experience.setCity(details.getCity());
+                }
+                if (details.getCountry() != null) {
+                    experience.setCountry(details.getCountry());
+                }
+                if (details.getStartDate() != null) {
+                    experience.setStartDate(details.getStartDate());
+                }
+                if (details.getEndDate() != null) {
+                    experience.setEndDate(details.getEndDate());
+                }
+                if (details.getResponsibilities() != null) {
+                    experience.setResponsibilities(details.getResponsibilities());
+                }
+                if (details.getOngoing() != null) {
+                    experience.setOngoing(details.getOngoing());
+                }
+                if (Boolean.TRUE.equals(experience.getOngoing())) {
+                    experience.setEndDate(null);
+                }
+            }));
+    }
+
+    @Transactional
+    public void experienceDeleted(PortfolioEntity portfolio, Long id) {
+        apply(portfolio, document -> document.getExperiences().removeIf(experience -> id.equals(experience.getId())));
+    }
+
+    /**
+     * Insert or replace educations in the portfolio document
+     */
+    @Transactional
+    public void educationsSaved(PortfolioEntity portfolio, List<EducationDto> educations) {
+        apply(portfolio, document -> upsert(document.getEducations(), educations, EducationDto::getId));
+    }
+
+    /**
+     * Apply a partial update (non-null fields, ongoing/endDate rule) to an education in the portfolio document
+     */
+    @Transactional
+    public void educationPatched(PortfolioEntity portfolio, Long id, EducationEntity details) {
+        apply(portfolio, document -> document.getEducations().stream()
+            .filter(education -> id.equals(education.getId()))
+            .forEach(education -> {
+                if (details.getTitleOfQualification() != null) {
+                    education.setTitleOfQualification(details.getTitleOfQualification());
+                }
+                if (details.getTraining() != null) {
+                    education.setTraining(details.getTraining());
+                }
+                if (details.getCity() != null) {
+                    education.setCity(details.getCity());
+                }
+                if (details.getCountry() != null) {
+                    education.setCountry(details.getCountry());
+                }
+                if (details.getStartDate() != null) {
+                    education.setStartDate(details.getStartDate());
+                }
+                if (details.getEndDate() != null) {
+                    education.setEndDate(details.getEndDate());
+                }
+                if (details.getOngoing() != null) {
+                    education.setOngoing(details.getOngoing());
+                }
+                if (Boolean.TRUE.equals(education.getOngoing())) {
+                    education.setEndDate(null);
+                }
+            }));
+    }
+
+    @Transactional
+    public void educationDeleted(PortfolioEntity portfolio, Long id) {
+        apply(portfolio, document -> document.getEducations().removeIf(education -> id.equals(education.getId())));
+    }
+
+    /**
+     * Document content in the requested encoding
+     * Non-JSON encodings are produced by streaming the stored JSON token by token into the target format,
+     * without binding it to a PortfolioDto.
+     */
+    public byte[] encode(PortfolioDocumentEntity document, MediaType type) {
+        if (MediaType.APPLICATION_JSON.equals(type)) {
+            return document.getContent();
+        }
+        JsonFactory target = MediaType.APPLICATION_CBOR.equals(type) ? CBOR_FACTORY : SMILE_FACTORY;
+        ByteArrayOutputStream out = new ByteArrayOutputStream(document.getContent().length);
+        try (JsonParser parser = objectMapper.getFactory().createParser(document.getContent());
+             JsonGenerator generator = target.createGenerator(out)) {
+            parser.nextToken();
+            generator.copyCurrentStructure(parser);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode portfolio document " + document.getPortfolioId(), e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Apply a change to the stored document and tag it with the portfolio's new version
+     * The caller holds the portfolio row lock (PortfolioService#markChanged), so read-modify-write is safe.
+     */
+    private void apply(PortfolioEntity portfolio, Consumer<PortfolioDto> change) {
+        Optional<PortfolioDocumentEntity> stored = documentRepository.findById(portfolio.getId());
+        if (stored.isEmpty()) {
+            // Relational rows are flushed before the rebuild queries run, so the change is included
+            rebuild(portfolio.getId());
+            return;
+        }
+        PortfolioDocumentEntity document = stored.get();
+        PortfolioDto content = deserialize(document.getContent());
+        change.accept(content);
+        content.setVersion(portfolio.getVersion());
+        document.setVersion(portfolio.getVersion());
+        document.setContent(serialize(content));
+    }
+
+    private static <T> void upsert(List<T> target, List<T> changed, Function<T, Long> idOf) {
+        for (T item : changed) {
+            target.removeIf(existing -> idOf.apply(existing).equals(idOf.apply(item)));
+            target.add(item);
+        }
+        target.sort(Comparator.comparing(idOf));
+    }
+
+    private byte[] serialize(PortfolioDto portfolio) {
+        try {
+            return objectMapper.writeValueAsBytes(portfolio);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to serialize portfolio " + portfolio.getId(), e);
+        }
+    }
+
+    private PortfolioDto deserialize(byte[] content) {
+        try {
+            PortfolioDto portfolio = objectMapper.readValue(content, PortfolioDto.class);
+            if (portfolio.getExperiences() == null) {
+                portfolio.setExperiences(new ArrayList<>());
+            }
+            if (portfolio.getEducations() == null) {
+                portfolio.setEducations(new ArrayList<>());
+            }
+            return portfolio;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read portfolio document", e);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.flexfolio.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flexfolio.backend.datasource.ReadOnlyTransactional;
+import com.flexfolio.backend.dto.EducationDto;
+import com.flexfolio.backend.dto.ExperienceDto;
+import com.flexfolio.backend.dto.PortfolioDto;
+import com.flexfolio.backend.repository.EducationRepository;
+import com.flexfolio.backend.repository.ExperienceRepository;
+import com.flexfolio.backend.repository.PortfolioRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Streaming export of every portfolio as newline-delimited JSON
+ * Portfolios, experiences and educations are read through three forward-only cursors ordered by portfolio id
+ * and merged on the fly, so each portfolio is written as soon as its children have been read and nothing
+ * else is held in memory. Rows are projected straight into DTOs, so the persistence context stays empty.
+ */
+@Service
+@RequiredArgsConstructor
+public class PortfolioExportService {
+
+    private static final byte NEWLINE = '\n';
+
+    private final PortfolioRepository portfolioRepository;
+
+    private final ExperienceRepository experienceRepository;
+
+    private final EducationRepository educationRepository;
+
+    private final EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Write all portfolios, one JSON document per line
+     */
+    @ReadOnlyTransactional
+    public void exportPortfolios(OutputStream out) throws IOException {
+        try (Stream<PortfolioDto> portfolios = portfolioRepository.streamAllForExport();
+             Stream<ExperienceDto> experiences = experienceRepository.streamAllForExport();
+             Stream<EducationDto> educations = educationRepository.streamAllForExport()) {
+            PeekingIterator<ExperienceDto> experienceRows = new PeekingIterator<>(experiences.iterator());
+            PeekingIterator<EducationDto> educationRows = new PeekingIterator<>(educations.iterator());
+            int written = 0;
+
+            for (Iterator<PortfolioDto> it = portfolios.iterator(); it.hasNext(); ) {
+                PortfolioDto portfolio = it.next();
+                collectChildren(portfolio.getId(), experienceRows, ExperienceDto::getPortfolioId, portfolio.getExperiences());
+                collectChildren(portfolio.getId(), educationRows, EducationDto::getPortfolioId, portfolio.getEducations());
+
+                out.write(objectMapper.writeValueAsBytes(portfolio));
+                out.write(NEWLINE);
+
+                if (++written % PortfolioRepository.EXPORT_FETCH_SIZE == 0) {
+                    out.flush();
+                    entityManager.clear();
+                }
+            }
+            out.flush();
+        }
+    }
+
+    /**
+     * Move the rows belonging to {@code portfolioId} from the child cursor into {@code target}
+     */
+    private static <T> void collectChildren(Long portfolioId, PeekingIterator<T> rows, Function<T, Long> portfolioIdOf, List<T> target) {
+        while (rows.hasNext() && portfolioIdOf.apply(rows.peek()) < portfolioId) {
+            rows.next();
+        }
+        while (rows.hasNext() && portfolioIdOf.apply(rows.peek()).equals(portfolioId)) {
+            target.add(rows.next());
+        }
+    }
+
+    /**
+     * Iterator with one element of look-ahead
+     */
+    private static final class PeekingIterator<T> {
+
+        private final Iterator<T> delegate;
+
+        private T next;
+
+        PeekingIterator(Iterator<T> delegate) {
+            this.delegate = delegate;
+            this.next = delegate.hasNext() ? delegate.next() : null;
+        }
+
+        boolean hasNext() {
+            return next != null;
+        }
+
+        T peek() {
+            return next;
+        }
+
+        T next() {
+            T current = next;
+            next = delegate.hasNext() ? delegate.next() : null;
+            return current;
+        }
+    }
+}
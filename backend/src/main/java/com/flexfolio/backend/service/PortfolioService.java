@@ -1,24 +1,43 @@
 package com.flexfolio.backend.service;
 
+import com.flexfolio.backend.datasource.ReadOnlyTransactional;
+import com.flexfolio.backend.dto.ChangeEventDto;
+import com.flexfolio.backend.dto.CursorPageDto;
 import com.flexfolio.backend.dto.PortfolioDto;
 import com.flexfolio.backend.mapper.EntityMapper;
+import com.flexfolio.backend.model.EducationEntity;
+import com.flexfolio.backend.model.ExperienceEntity;
 import com.flexfolio.backend.model.PortfolioEntity;
 import com.flexfolio.backend.model.UserEntity;
+import com.flexfolio.backend.pagination.Cursor;
 import com.flexfolio.backend.repository.PortfolioRepository;
+import com.flexfolio.backend.repository.PortfolioVersion;
 import com.flexfolio.backend.repository.UserRepository;
+import com.flexfolio.backend.security.PortfolioOwnerIndex;
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.List;
-import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "flexfolio.service", histogram = true)
 public class PortfolioService {
 
     private final PortfolioRepository portfolioRepository;
     private final UserRepository userRepository;
     private final EntityMapper entityMapper;
+    private final PortfolioDocumentService portfolioDocumentService;
+    private final SearchService searchService;
+    private final ChangeFeedService changeFeedService;
+    private final PortfolioOwnerIndex portfolioOwnerIndex;
 
     /**
      * Create a new portfolio for a user
@@ -28,35 +47,68 @@ public class PortfolioService {
         UserEntity user = userRepository.findById(userId)
             .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
         portfolio.setUser(user);
+        portfolio.setVersion(0L);
         PortfolioEntity savedPortfolio = portfolioRepository.save(portfolio);
-        return entityMapper.toPortfolioDto(savedPortfolio);
+        PortfolioDto createdPortfolio = entityMapper.toPortfolioDto(savedPortfolio);
+        portfolioDocumentService.portfolioCreated(createdPortfolio);
+        portfolioOwnerIndex.portfolioSaved(savedPortfolio.getId(), userId);
+        changeFeedService.portfolioChanged(savedPortfolio, ChangeEventDto.PORTFOLIO, List.of(savedPortfolio.getId()), ChangeEventDto.CREATED);
+        return createdPortfolio;
+    }
+
+    /**
+     * ETag of a portfolio at a given version
+     */
+    public static String portfolioETag(Long id, Long version) {
+        return "p" + id + "v" + version;
+    }
+
+    /**
+     * Get the ETag of a user's portfolio list from the ids and versions of its portfolios
+     */
+    @ReadOnlyTransactional
+    public String getPortfoliosETagByUserId(Long userId) {
+        StringBuilder state = new StringBuilder();
+        for (PortfolioVersion version : portfolioRepository.findVersionsByUserIdOrderByIdAsc(userId)) {
+            state.append(version.getId()).append(':').append(version.getVersion()).append(',');
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(state.toString().getBytes(StandardCharsets.UTF_8));
+            return "u" + userId + "-" + HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
     /**
-     * Get portfolio by ID
+     * Lock a portfolio and move its version forward
+     * Must be called inside the transaction of every write to the portfolio or its experiences/educations.
      */
     @Transactional
-    public Optional<PortfolioDto> getPortfolioById(Long id) {
-        return portfolioRepository.findById(id)
-            .map(entityMapper::toPortfolioDto);
+    public PortfolioEntity markChanged(Long portfolioId) {
+        PortfolioEntity portfolio = portfolioRepository.findByIdForUpdate(portfolioId)
+            .orElseThrow(() -> new RuntimeException("Portfolio not found with id: " + portfolioId));
+        portfolio.setVersion(portfolio.getVersion() + 1);
+        return portfolio;
     }
 
     /**
      * Get all portfolios for a specific user
      */
-    @Transactional
+    @ReadOnlyTransactional
     public List<PortfolioDto> getPortfoliosByUserId(Long userId) {
         List<PortfolioEntity> portfolios = portfolioRepository.findByUserId(userId);
         return entityMapper.toPortfolioDtoList(portfolios);
     }
 
     /**
-     * Get all portfolios
+     * Get one page of portfolios, ordered by id, starting after the given cursor
      */
-    @Transactional
-    public List<PortfolioDto> getAllPortfolios() {
-        List<PortfolioEntity> portfolios = portfolioRepository.findAll();
-        return entityMapper.toPortfolioDtoList(portfolios);
+    @ReadOnlyTransactional
+    public CursorPageDto<PortfolioDto> getAllPortfolios(String cursor, int limit) {
+        int pageSize = Cursor.clampLimit(limit);
+        List<PortfolioEntity> portfolios = portfolioRepository.findByIdGreaterThanOrderByIdAsc(Cursor.decode(cursor), Limit.of(pageSize + 1));
+        return Cursor.page(portfolios, pageSize, PortfolioEntity::getId, entityMapper::toPortfolioDtoList);
     }
 
     /**
@@ -64,12 +116,18 @@ public class PortfolioService {
      */
     @Transactional
     public PortfolioDto updatePortfolio(Long id, PortfolioEntity portfolioDetails) {
-        PortfolioEntity updatedPortfolio = portfolioRepository.findById(id).map(portfolio -> {
-            if (portfolioDetails.getUser() != null) {
-                portfolio.setUser(portfolioDetails.getUser());
-            }
-            return portfolioRepository.save(portfolio);
-        }).orElseThrow(() -> new RuntimeException("Portfolio not found with id: " + id));
+        PortfolioEntity portfolio = markChanged(id);
+        Long previousOwnerId = portfolio.getUser().getId();
+        if (portfolioDetails.getUser() != null) {
+            portfolio.setUser(portfolioDetails.getUser());
+        }
+        PortfolioEntity updatedPortfolio = portfolioRepository.save(portfolio);
+        portfolioDocumentService.portfolioUpdated(updatedPortfolio);
+        changeFeedService.portfolioChanged(updatedPortfolio, ChangeEventDto.PORTFOLIO, List.of(id), ChangeEventDto.UPDATED);
+        if (!previousOwnerId.equals(updatedPortfolio.getUser().getId())) {
+            portfolioOwnerIndex.portfolioSaved(id, updatedPortfolio.getUser().getId());
+            changeFeedService.portfolioRemoved(previousOwnerId, id);
+        }
 
         return entityMapper.toPortfolioDto(updatedPortfolio);
     }
@@ -79,7 +137,15 @@ public class PortfolioService {
      */
     @Transactional
     public void deletePortfolio(Long id) {
-        portfolioRepository.deleteById(id);
+        portfolioRepository.findById(id).ifPresent(portfolio -> {
+            List<Long> experienceIds = portfolio.getExperiences().stream().map(ExperienceEntity::getIdExp).toList();
+            List<Long> educationIds = portfolio.getEducations().stream().map(EducationEntity::getIdEdu).toList();
+            portfolioRepository.delete(portfolio);
+            portfolioOwnerIndex.portfolioDeleted(id, experienceIds, educationIds);
+            portfolioDocumentService.portfolioDeleted(id);
+            searchService.portfolioDeleted(id);
+            changeFeedService.portfolioRemoved(portfolio.getUser().getId(), id);
+        });
     }
 }
 
@@ -0,0 +1,171 @@
+package com.flexfolio.backend.service;
+
+import com.flexfolio.backend.model.RefreshTokenEntity;
+import com.flexfolio.backend.model.UserEntity;
+import com.flexfolio.backend.repository.RefreshTokenRepository;
+import com.flexfolio.backend.repository.UserRepository;
+import com.flexfolio.backend.security.SecurityMetrics;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rotating, opaque refresh tokens
+ * A token is 256 random bits, handed out once and stored only as its SHA-256. Each exchange marks the token
+ * used and issues its successor in the same family; presenting a used token again means it was copied, so the
+ * whole family is deleted and the session has to log in again. The exception is a repeat within the reuse grace
+ * window by the client the token was issued to (two tabs refreshing at once), proven by the id of the access token
+ * issued with it: that client gets another successor in the same family. The decision only reads the locked row,
+ * so every instance takes the same one. Expired tokens are purged in the background.
+ */
+@Service
+@Timed(value = "flexfolio.service", histogram = true)
+public class RefreshTokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    private final UserRepository userRepository;
+
+    private final SecurityMetrics securityMetrics;
+
+    private final long refreshExpirationMs;
+
+    private final long reuseGraceMs;
+
+    private final ScheduledExecutorService purger;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               UserRepository userRepository,
+                               SecurityMetrics securityMetrics,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${jwt.refresh-expiration:1209600000}") long refreshExpirationMs,
+                               @Value("${jwt.refresh-reuse-grace-ms:10000}") long reuseGraceMs) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.securityMetrics = securityMetrics;
+        this.refreshExpirationMs = refreshExpirationMs;
+        this.reuseGraceMs = reuseGraceMs;
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        this.purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "refresh-token-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+        purger.scheduleWithFixedDelay(() -> {
+            try {
+                transactionTemplate.executeWithoutResult(status -> refreshTokenRepository.deleteExpired(Instant.now()));
+            } catch (RuntimeException e) {
+                // Expired tokens are rejected anyway; the next run purges them
+            }
+        }, 1, 1, TimeUnit.HOURS);
+    }
+
+    /**
+     * A refresh token handed to the client, with the user it authenticates
+     */
+    public record IssuedToken(String token, Long userId, String email) {
+    }
+
+    /**
+     * Start a new token family for a user who just logged in; the user is referenced, not loaded
+     * @param accessTokenId id of the access token issued together with the refresh token
+     */
+    @Transactional
+    public String issue(Long userId, String accessTokenId) {
+        return create(userRepository.getReferenceById(userId), UUID.randomUUID(), accessTokenId);
+    }
+
+    /**
+     * Exchange a refresh token for its successor
+     * @param presentedAccessTokenId id of the access token the client holds with the refresh token, or null
+     * @param nextAccessTokenId id of the access token that will be issued with the successor
+     * @return the new token and its user; empty if the token is unknown, expired or was already used (outside the
+     * grace window, or by a client without the access token issued with it)
+     */
+    @Transactional
+    public Optional<IssuedToken> rotate(String token, String presentedAccessTokenId, String nextAccessTokenId) {
+        String tokenHash = hash(token);
+        RefreshTokenEntity current = refreshTokenRepository.findByHashForUpdate(tokenHash).orElse(null);
+        Instant now = Instant.now();
+        if (current == null || !current.getExpiresAt().isAfter(now)) {
+            securityMetrics.refreshInvalid();
+            return Optional.empty();
+        }
+        if (current.getUsedAt() != null && !isRepeatBySameClient(current, presentedAccessTokenId, now)) {
+            refreshTokenRepository.deleteFamily(current.getFamilyId());
+            securityMetrics.refreshReused();
+            return Optional.empty();
+        }
+        if (current.getUsedAt() == null) {
+            current.setUsedAt(now);
+        }
+        UserEntity user = current.getUser();
+        String next = create(user, current.getFamilyId(), nextAccessTokenId);
+        securityMetrics.refreshSucceeded();
+        return Optional.of(new IssuedToken(next, user.getId(), user.getEmail()));
+    }
+
+    /**
+     * A used token presented again within the grace window of its first use, with the access token issued with it
+     */
+    private boolean isRepeatBySameClient(RefreshTokenEntity used, String presentedAccessTokenId, Instant now) {
+        return used.getUsedAt().plusMillis(reuseGraceMs).isAfter(now)
+            && used.getAccessTokenId() != null
+            && Objects.equals(used.getAccessTokenId(), presentedAccessTokenId);
+    }
+
+    /**
+     * Revoke the family of a refresh token (logout); unknown tokens are ignored
+     */
+    @Transactional
+    public void revoke(String token) {
+        refreshTokenRepository.findFamilyIdByHash(hash(token)).ifPresent(refreshTokenRepository::deleteFamily);
+    }
+
+    public long getRefreshExpirationMs() {
+        return refreshExpirationMs;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        purger.shutdownNow();
+    }
+
+    private String create(UserEntity user, UUID familyId, String accessTokenId) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        Instant expiresAt = Instant.now().plusMillis(refreshExpirationMs);
+        refreshTokenRepository.save(new RefreshTokenEntity(hash(token), user, familyId, expiresAt, accessTokenId));
+        return token;
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.flexfolio.backend.service;
+
+import com.flexfolio.backend.datasource.ReadOnlyTransactional;
+import com.flexfolio.backend.dto.CursorPageDto;
+import com.flexfolio.backend.dto.SearchResultDto;
+import com.flexfolio.backend.pagination.Cursor;
+import com.flexfolio.backend.repository.SearchIndexRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Full-text search over experiences and educations.
+ * The index is updated incrementally by the write methods of ExperienceService, EducationService
+ * and PortfolioService, inside their transactions; {@link #reindexAll()} rebuilds it from scratch (operator task,
+ * see SearchIndexEndpoint).
+ */
+@Service
+@RequiredArgsConstructor
+@Timed(value = "flexfolio.service", histogram = true)
+public class SearchService {
+
+    private static final String CURSOR_PREFIX = "s:";
+
+    private final SearchIndexRepository searchIndexRepository;
+
+    /**
+     * Search experiences (position, employer, responsibilities) and educations (qualification, training).
+     * The query accepts web-search syntax: words, "quoted phrases", OR, and -excluded words.
+     * Results are ranked best first; the cursor resumes after the last hit of the previous page.
+     */
+    @ReadOnlyTransactional
+    public CursorPageDto<SearchResultDto> search(String query, String cursor, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query is required");
+        }
+        int pageSize = Cursor.clampLimit(limit);
+        List<SearchResultDto> hits;
+        if (cursor == null || cursor.isBlank()) {
+            hits = searchIndexRepository.search(query, null, null, null, pageSize + 1);
+        } else {
+            String[] after = decodeCursor(cursor);
+            hits = searchIndexRepository.search(query, Float.parseFloat(after[0]), after[1], Long.parseLong(after[2]), pageSize + 1);
+        }
+        boolean hasNext = hits.size() > pageSize;
+        List<SearchResultDto> page = hasNext ? hits.subList(0, pageSize) : hits;
+        String next = hasNext ? encodeCursor(page.get(page.size() - 1)) : null;
+        return new CursorPageDto<>(page, next);
+    }
+
+    /**
+     * Rebuild the whole index, e.g. after a bulk import that bypassed the services
+     */
+    @Transactional
+    public int reindexAll() {
+        return searchIndexRepository.reindexAll();
+    }
+
+    /**
+     * Created or updated experiences
+     */
+    public void experiencesSaved(Collection<Long> ids) {
+        searchIndexRepository.indexExperiences(ids);
+    }
+
+    public void experienceDeleted(Long id) {
+        searchIndexRepository.delete(SearchIndexRepository.EXPERIENCE, id);
+    }
+
+    /**
+     * Created or updated educations
+     */
+    public void educationsSaved(Collection<Long> ids) {
+        searchIndexRepository.indexEducations(ids);
+    }
+
+    public void educationDeleted(Long id) {
+        searchIndexRepository.delete(SearchIndexRepository.EDUCATION, id);
+    }
+
+    public void portfolioDeleted(Long portfolioId) {
+        searchIndexRepository.deleteByPortfolioId(portfolioId);
+    }
+
+    private static String encodeCursor(SearchResultDto last) {
+        String raw = CURSOR_PREFIX + last.getRank() + ":" + last.getType() + ":" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.startsWith(CURSOR_PREFIX) ? raw.substring(CURSOR_PREFIX.length()).split(":") : new String[0];
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            Float.parseFloat(parts[0]);
+            Long.parseLong(parts[2]);
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
@@ -1,11 +1,17 @@
 package com.flexfolio.backend.service;
 
+import com.flexfolio.backend.datasource.ReadOnlyTransactional;
+import com.flexfolio.backend.dto.CursorPageDto;
 import com.flexfolio.backend.dto.UserDto;
 import com.flexfolio.backend.mapper.EntityMapper;
 import com.flexfolio.backend.model.UserEntity;
+import com.flexfolio.backend.pagination.Cursor;
 import com.flexfolio.backend.repository.UserRepository;
+import com.flexfolio.backend.security.RegisteredEmailFilter;
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -13,37 +19,42 @@ import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "flexfolio.service", histogram = true)
 public class UserService {
 
     private final UserRepository userRepository;
 
     private final EntityMapper entityMapper;
 
+    private final RegisteredEmailFilter registeredEmailFilter;
+
     /**
      * Create a new user
      */
     @Transactional
     public UserDto createUser(UserEntity user) {
         UserEntity savedUser = userRepository.save(user);
+        registeredEmailFilter.add(savedUser.getEmail());
         return entityMapper.toUserDto(savedUser);
     }
 
     /**
      * Get user by ID
      */
-    @Transactional
+    @ReadOnlyTransactional
     public Optional<UserDto> getUserById(Long id) {
         return userRepository.findById(id)
             .map(entityMapper::toUserDto);
     }
 
     /**
-     * Get all users
+     * Get one page of users, ordered by id, starting after the given cursor
      */
-    @Transactional
-    public List<UserDto> getAllUsers() {
-        List<UserEntity> users = userRepository.findAll();
-        return entityMapper.toUserDtoList(users);
+    @ReadOnlyTransactional
+    public CursorPageDto<UserDto> getAllUsers(String cursor, int limit) {
+        int pageSize = Cursor.clampLimit(limit);
+        List<UserEntity> users = userRepository.findByIdGreaterThanOrderByIdAsc(Cursor.decode(cursor), Limit.of(pageSize + 1));
+        return Cursor.page(users, pageSize, UserEntity::getId, entityMapper::toUserDtoList);
     }
 
     /**
@@ -54,6 +65,7 @@ public class UserService {
         UserEntity updatedUser = userRepository.findById(id).map(user -> {
             if (userDetails.getEmail() != null) {
                 user.setEmail(userDetails.getEmail());
+                registeredEmailFilter.add(userDetails.getEmail());
             }
             if (userDetails.getPassword() != null) {
                 user.setPassword(userDetails.getPassword());
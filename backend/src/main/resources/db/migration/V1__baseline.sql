@@ -0,0 +1,40 @@
+-- Baseline: the schema as previously generated by Hibernate (ddl-auto: update). Databases created before
+-- migrations existed are baselined at this version (spring.flyway.baseline-on-migrate) and only receive the
+-- later scripts, so this file must keep describing exactly that schema.
+
+CREATE TABLE user_ (
+    id          bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email       varchar(100) NOT NULL UNIQUE,
+    password    varchar(255) NOT NULL,
+    created_at  timestamp(6) NOT NULL
+);
+
+CREATE TABLE portfolio (
+    id       bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id  bigint NOT NULL REFERENCES user_ (id)
+);
+
+CREATE TABLE experience (
+    id_exp            bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    position_         varchar(50) NOT NULL,
+    employer          varchar(50),
+    city              varchar(50),
+    country           varchar(50),
+    start_date        date,
+    end_date          date,
+    responsibilities  varchar(350),
+    ongoing           boolean,
+    id_portfolio      bigint NOT NULL REFERENCES portfolio (id)
+);
+
+CREATE TABLE education (
+    id_edu                  bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title_of_qualification  varchar(50) NOT NULL,
+    training                varchar(100),
+    ongoing                 boolean,
+    city                    varchar(50),
+    country                 varchar(50),
+    start_date              date,
+    end_date                date,
+    id_portfolio            bigint NOT NULL REFERENCES portfolio (id)
+);
@@ -0,0 +1,4 @@
+-- Portfolio version (PortfolioEntity.version): bumped by every write to the portfolio or its children,
+-- it drives ETags, the materialized documents and the change feed. A database that ran the application with
+-- ddl-auto: update may already have the column.
+ALTER TABLE portfolio ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
@@ -0,0 +1,11 @@
+-- Pooled id generators (ExperienceEntity/EducationEntity allocationSize = 50) replace the identity columns,
+-- so bulk inserts can be batched. Each sequence starts past the ids already in use: the pooled optimizer
+-- hands out the 50 ids below each value it reads.
+CREATE SEQUENCE IF NOT EXISTS experience_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS education_seq START WITH 1 INCREMENT BY 50;
+
+SELECT setval('experience_seq', (SELECT coalesce(max(id_exp), 0) + 50 FROM experience));
+SELECT setval('education_seq', (SELECT coalesce(max(id_edu), 0) + 50 FROM education));
+
+ALTER TABLE experience ALTER COLUMN id_exp DROP IDENTITY IF EXISTS;
+ALTER TABLE education ALTER COLUMN id_edu DROP IDENTITY IF EXISTS;
@@ -0,0 +1,6 @@
+-- Materialized portfolio documents (PortfolioDocumentService)
+CREATE TABLE IF NOT EXISTS portfolio_document (
+    portfolio_id  bigint PRIMARY KEY,
+    version       bigint NOT NULL,
+    content       bytea NOT NULL
+);
@@ -0,0 +1,16 @@
+-- Full-text search index over experiences and educations.
+-- One row per indexed entity, maintained by the write services (SearchIndexRepository);
+-- the GIN index on "document" is the inverted index used by GET /api/search.
+-- Rows for data written before this migration are created by the searchindex maintenance task.
+CREATE TABLE IF NOT EXISTS search_entry (
+    entity_type  varchar(16)  NOT NULL,
+    entity_id    bigint       NOT NULL,
+    portfolio_id bigint       NOT NULL,
+    title        varchar(100),
+    subtitle     varchar(100),
+    document     tsvector     NOT NULL,
+    PRIMARY KEY (entity_type, entity_id)
+);
+
+CREATE INDEX IF NOT EXISTS search_entry_document_idx ON search_entry USING gin (document);
+CREATE INDEX IF NOT EXISTS search_entry_portfolio_idx ON search_entry (portfolio_id);
@@ -0,0 +1,16 @@
+-- Indexes for the hot repository lookups (checked by bench/index-check.sh).
+-- Databases created by Hibernate may already have a plain unique constraint on email; the
+-- case-insensitive index below fails if two emails differ only by case, which must be fixed first.
+
+-- ExperienceRepository/EducationRepository.findDtosByPortfolioId (where id_portfolio = ? order by id),
+-- PortfolioEntity.experiences/educations batch loading (where id_portfolio in (...)) and the export
+-- stream (order by id_portfolio, id)
+CREATE INDEX IF NOT EXISTS experience_portfolio_idx ON experience (id_portfolio, id_exp);
+CREATE INDEX IF NOT EXISTS education_portfolio_idx ON education (id_portfolio, id_edu);
+
+-- PortfolioRepository.findByUserId and findVersionsByUserIdOrderByIdAsc; version is included so the
+-- ETag query is answered from the index alone
+CREATE INDEX IF NOT EXISTS portfolio_user_idx ON portfolio (user_id, id) INCLUDE (version);
+
+-- UserRepository.findByEmail compares lower(email); unique, so emails are unique regardless of case
+CREATE UNIQUE INDEX IF NOT EXISTS user_email_lower_idx ON user_ (lower(email));
@@ -0,0 +1,14 @@
+-- Revoked JWTs, by token id (jti). Read only when the in-memory Bloom filter of TokenDenylist reports a
+-- possible match, and in full at startup to rebuild that filter. Rows are purged once the token has expired.
+CREATE TABLE IF NOT EXISTS revoked_token (
+    jti        VARCHAR(36) PRIMARY KEY,
+    user_id    BIGINT,
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    revoked_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+-- Startup rebuild (expires_at > now()) and purge (expires_at < now())
+CREATE INDEX IF NOT EXISTS revoked_token_expires_idx ON revoked_token (expires_at);
+
+-- Periodic pull of revocations made by other instances (revoked_at > last sync)
+CREATE INDEX IF NOT EXISTS revoked_token_revoked_idx ON revoked_token (revoked_at);
@@ -0,0 +1,16 @@
+-- Opaque refresh tokens, stored as the hex SHA-256 of the token (the raw value is never persisted).
+-- Tokens rotate on every use; a rotated token keeps its row (used_at set) until it expires, so presenting it
+-- again is detected as reuse and the whole family (one login) is deleted.
+CREATE TABLE IF NOT EXISTS refresh_token (
+    token_hash VARCHAR(64) PRIMARY KEY,
+    user_id    BIGINT NOT NULL REFERENCES user_ (id) ON DELETE CASCADE,
+    family_id  UUID NOT NULL,
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    used_at    TIMESTAMP WITH TIME ZONE
+);
+
+-- Family revocation on reuse and on logout
+CREATE INDEX IF NOT EXISTS refresh_token_family_idx ON refresh_token (family_id);
+
+-- Purge of expired tokens
+CREATE INDEX IF NOT EXISTS refresh_token_expires_idx ON refresh_token (expires_at);
@@ -0,0 +1,4 @@
+-- Binds each refresh token to the access token (jti) issued with it. A used token presented again within the
+-- reuse grace window is honoured only together with that access token, and the decision is made from the row alone,
+-- so every instance takes the same one. Tokens issued before this column existed have no binding: a repeat is reuse.
+ALTER TABLE refresh_token ADD COLUMN IF NOT EXISTS access_token_id VARCHAR(36);
@@ -0,0 +1,127 @@
+package com.flexfolio.backend.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routing rules on two separate H2 databases, each holding a row naming itself:
+ * {@code @ReadOnlyTransactional} reads go to the replica, writes go to the primary,
+ * and reads after a write in the same request stay on the primary.
+ */
+@SpringJUnitConfig(ReplicaRoutingDataSourceTest.Config.class)
+class ReplicaRoutingDataSourceTest {
+
+    @Autowired
+    private Reader reader;
+
+    @AfterEach
+    void clearRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void readOnlyTransactionGoesToReplica() {
+        assertThat(reader.readOnly()).isEqualTo("replica");
+    }
+
+    @Test
+    void writeTransactionGoesToPrimary() {
+        assertThat(reader.readWrite()).isEqualTo("primary");
+    }
+
+    @Test
+    void readAfterWriteInSameRequestStaysOnPrimary() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        assertThat(reader.readOnly()).isEqualTo("replica");
+        reader.readWrite();
+        assertThat(reader.readOnly()).isEqualTo("primary");
+    }
+
+    @Test
+    void otherRequestsStillReadFromReplica() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        reader.readWrite();
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        assertThat(reader.readOnly()).isEqualTo("replica");
+    }
+
+    static class Reader {
+
+        private final JdbcTemplate jdbcTemplate;
+
+        Reader(DataSource dataSource) {
+            this.jdbcTemplate = new JdbcTemplate(dataSource);
+        }
+
+        @ReadOnlyTransactional
+        public String readOnly() {
+            return databaseName();
+        }
+
+        @Transactional
+        public String readWrite() {
+            jdbcTemplate.update("update source set name = name");
+            return databaseName();
+        }
+
+        private String databaseName() {
+            return jdbcTemplate.queryForObject("select name from source", String.class);
+        }
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    static class Config {
+
+        @Bean
+        ReplicaRoutingDataSource routingDataSource() {
+            return new ReplicaRoutingDataSource(database("primary"), List.of(database("replica")), new SimpleMeterRegistry());
+        }
+
+        @Bean
+        DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+            return new LazyConnectionDataSourceProxy(routingDataSource);
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager(DataSource dataSource) {
+            return new DataSourceTransactionManager(dataSource);
+        }
+
+        @Bean
+        Reader reader(DataSource dataSource) {
+            return new Reader(dataSource);
+        }
+
+        private static DataSource database(String name) {
+            DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.execute("create table if not exists source (name varchar(16))");
+            jdbcTemplate.update("delete from source");
+            jdbcTemplate.update("insert into source (name) values (?)", name);
+            return dataSource;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.flexfolio.backend.repository;
+
+import com.flexfolio.backend.model.ExperienceEntity;
+import com.flexfolio.backend.model.PortfolioEntity;
+import com.flexfolio.backend.model.UserEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the patch path: one UPDATE of the supplied columns, matched by id and portfolio, that leaves the
+ * second-level cache entries of other rows in place. Each step commits, so cache maintenance runs as in production.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"
+})
+class ExperienceRepositoryPartialUpdateTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ExperienceRepository experienceRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+
+    private Long portfolioId;
+
+    private Long ongoingId;
+
+    private Long finishedId;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        List<ExperienceEntity> experiences = transaction.execute(status -> persistPortfolio());
+        portfolioId = experiences.get(0).getPortfolio().getId();
+        ongoingId = experiences.get(0).getIdExp();
+        finishedId = experiences.get(1).getIdExp();
+
+        entityManagerFactory.getCache().evictAll();
+        transaction.executeWithoutResult(status -> {
+            experienceRepository.findById(ongoingId);
+            experienceRepository.findById(finishedId);
+        });
+        assertThat(isCached(ongoingId)).isTrue();
+        assertThat(isCached(finishedId)).isTrue();
+    }
+
+    @Test
+    void writesOnlySuppliedColumnsAndKeepsOtherCachedRows() {
+        ExperienceEntity details = new ExperienceEntity();
+        details.setPosition("Lead");
+
+        assertThat(update(finishedId, portfolioId, details)).isEqualTo(1);
+
+        assertThat(isCached(finishedId)).isFalse();
+        assertThat(isCached(ongoingId)).isTrue();
+        ExperienceEntity patched = load(finishedId);
+        assertThat(patched.getPosition()).isEqualTo("Lead");
+        assertThat(patched.getEmployer()).isEqualTo("Employer");
+        assertThat(patched.getEndDate()).isEqualTo(LocalDate.of(2022, 6, 30));
+    }
+
+    @Test
+    void matchesNothingOutsideThePortfolio() {
+        ExperienceEntity details = new ExperienceEntity();
+        details.setPosition("Lead");
+
+        assertThat(update(finishedId, portfolioId + 1000, details)).isZero();
+        assertThat(update(finishedId + 1000, portfolioId, details)).isZero();
+        assertThat(update(finishedId + 1000, portfolioId, new ExperienceEntity())).isZero();
+        assertThat(update(finishedId, portfolioId, new ExperienceEntity())).isEqualTo(1);
+
+        assertThat(isCached(finishedId)).isTrue();
+        assertThat(load(finishedId).getPosition()).isEqualTo("Position 1");
+    }
+
+    @Test
+    void ongoingEntriesNeverGetAnEndDate() {
+        ExperienceEntity endDateOnly = new ExperienceEntity();
+        endDateOnly.setEndDate(LocalDate.of(2024, 1, 31));
+        ExperienceEntity nowOngoing = new ExperienceEntity();
+        nowOngoing.setOngoing(true);
+
+        update(ongoingId, portfolioId, endDateOnly);
+        update(finishedId, portfolioId, nowOngoing);
+
+        assertThat(load(ongoingId).getEndDate()).isNull();
+        assertThat(load(finishedId).getOngoing()).isTrue();
+        assertThat(load(finishedId).getEndDate()).isNull();
+    }
+
+    private int update(Long id, Long portfolioId, ExperienceEntity details) {
+        return transaction.execute(status -> experienceRepository.updateNonNullFields(id, portfolioId, details));
+    }
+
+    private ExperienceEntity load(Long id) {
+        return transaction.execute(status -> experienceRepository.findById(id).orElseThrow());
+    }
+
+    private boolean isCached(Long id) {
+        return entityManagerFactory.getCache().contains(ExperienceEntity.class, id);
+    }
+
+    private List<ExperienceEntity> persistPortfolio() {
+        UserEntity user = new UserEntity();
+        user.setEmail("patch-" + UUID.randomUUID() + "@example.com");
+        user.setPassword("{noop}password");
+        entityManager.persist(user);
+
+        PortfolioEntity portfolio = new PortfolioEntity();
+        portfolio.setUser(user);
+        portfolio.setExperiences(new ArrayList<>());
+        portfolio.setEducations(new ArrayList<>());
+        portfolio.getExperiences().add(experience(portfolio, 0, true, null));
+        portfolio.getExperiences().add(experience(portfolio, 1, false, LocalDate.of(2022, 6, 30)));
+        entityManager.persist(portfolio);
+        return portfolio.getExperiences();
+    }
+
+    private static ExperienceEntity experience(PortfolioEntity portfolio, int index, boolean ongoing, LocalDate endDate) {
+        ExperienceEntity experience = new ExperienceEntity();
+        experience.setPosition("Position " + index);
+        experience.setEmployer("Employer");
+        experience.setStartDate(LocalDate.of(2020, 1, 1));
+        experience.setOngoing(ongoing);
+        experience.setEndDate(endDate);
+        experience.setPortfolio(portfolio);
+        return experience;
+    }
+}
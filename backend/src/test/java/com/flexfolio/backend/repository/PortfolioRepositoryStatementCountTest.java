@@ -0,0 +1,144 @@
+package com.flexfolio.backend.repository;
+
+import com.flexfolio.backend.dto.PortfolioDto;
+import com.flexfolio.backend.mapper.EntityMapper;
+import com.flexfolio.backend.model.EducationEntity;
+import com.flexfolio.backend.model.ExperienceEntity;
+import com.flexfolio.backend.model.PortfolioEntity;
+import com.flexfolio.backend.model.UserEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the list fetch plan: loading N portfolios with their experiences and educations
+ * must cost the same number of statements whatever N is (owner join + one batch per collection).
+ */
+@DataJpaTest
+@Import(EntityMapper.class)
+@TestPropertySource(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class PortfolioRepositoryStatementCountTest {
+
+    /**
+     * Portfolio select joining the owner, then one batch each for experiences and educations
+     */
+    private static final long LIST_STATEMENTS = 3;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PortfolioRepository portfolioRepository;
+
+    @Autowired
+    private EntityMapper entityMapper;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void portfoliosOfUserLoadInFixedStatementCount(int portfolioCount) {
+        UserEntity user = persistUserWithPortfolios(portfolioCount);
+        startCounting();
+
+        List<PortfolioDto> portfolios = entityMapper.toPortfolioDtoList(portfolioRepository.findByUserId(user.getId()));
+
+        assertThat(portfolios).hasSize(portfolioCount);
+        assertThat(portfolios).allSatisfy(p -> {
+            assertThat(p.getExperiences()).hasSize(2);
+            assertThat(p.getEducations()).hasSize(2);
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(LIST_STATEMENTS);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void portfolioPageLoadsInFixedStatementCount(int portfolioCount) {
+        persistUserWithPortfolios(portfolioCount);
+        startCounting();
+
+        List<PortfolioDto> portfolios = entityMapper.toPortfolioDtoList(
+            portfolioRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(portfolioCount)));
+
+        assertThat(portfolios).hasSize(portfolioCount);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(LIST_STATEMENTS);
+    }
+
+    private UserEntity persistUserWithPortfolios(int portfolioCount) {
+        UserEntity user = new UserEntity();
+        user.setEmail("count-" + portfolioCount + "@example.com");
+        user.setPassword("{noop}password");
+        entityManager.persist(user);
+
+        for (int i = 0; i < portfolioCount; i++) {
+            PortfolioEntity portfolio = new PortfolioEntity();
+            portfolio.setUser(user);
+            portfolio.setExperiences(new ArrayList<>());
+            portfolio.setEducations(new ArrayList<>());
+            for (int j = 0; j < 2; j++) {
+                portfolio.getExperiences().add(experience(portfolio, j));
+                portfolio.getEducations().add(education(portfolio, j));
+            }
+            entityManager.persist(portfolio);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return user;
+    }
+
+    /**
+     * Start from an empty persistence context and second-level cache so every row comes from SQL
+     */
+    private void startCounting() {
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+    }
+
+    private static ExperienceEntity experience(PortfolioEntity portfolio, int index) {
+        ExperienceEntity experience = new ExperienceEntity();
+        experience.setPosition("Position " + index);
+        experience.setStartDate(LocalDate.of(2020, 1, 1));
+        experience.setOngoing(true);
+        experience.setPortfolio(portfolio);
+        return experience;
+    }
+
+    private static EducationEntity education(PortfolioEntity portfolio, int index) {
+        EducationEntity education = new EducationEntity();
+        education.setTitleOfQualification("Qualification " + index);
+        education.setStartDate(LocalDate.of(2015, 9, 1));
+        education.setOngoing(false);
+        education.setEndDate(LocalDate.of(2018, 6, 30));
+        education.setPortfolio(portfolio);
+        return education;
+    }
+}
@@ -33,6 +33,7 @@ import LinkedInIcon from '@mui/icons-material/LinkedIn';
 import TwitterIcon from '@mui/icons-material/Twitter';
 import InputAdornment from '@mui/material/InputAdornment';
 import FolderIcon from '@mui/icons-material/Folder';
+import CloudUploadIcon from '@mui/icons-material/CloudUpload';
 import EditIcon from '@mui/icons-material/Edit';
 import DeleteIcon from '@mui/icons-material/Delete';
 import CheckCircleIcon from '@mui/icons-material/CheckCircle';
@@ -101,7 +102,8 @@ const AdminDashboard = () => {
     createPortfolio,
     updatePortfolio,
     deletePortfolio,
-    switchPortfolio
+    switchPortfolio,
+    syncPortfolio
   } = useProfile();
   
   const [profileData, setProfileData] = useState({ ...profile });
@@ -357,6 +359,15 @@ const AdminDashboard = () => {
     }
   };
 
+  const handleSyncPortfolio = async (portfolioId) => {
+    try {
+      await syncPortfolio(portfolioId);
+    } catch (error) {
+      // Error already shown to user
+      console.error('Failed to sync portfolio:', error);
+    }
+  };
+
   const handleSwitchPortfolio = (portfolioId) => {
     switchPortfolio(portfolioId);
   };
@@ -663,6 +674,16 @@ const AdminDashboard = () => {
                         >
                           <DeleteIcon />
                         </IconButton>
+                        {!portfolio.backendId && (
+                          <IconButton
+                            size="small"
+                            color="primary"
+                            onClick={() => handleSyncPortfolio(portfolio.id)}
+                            title="Synchroniser avec le backend"
+                          >
+                            <CloudUploadIcon />
+                          </IconButton>
+                        )}
                       </Box>
                       {!isActive && (
                         <Button
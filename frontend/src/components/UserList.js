@@ -7,7 +7,8 @@ import { userService } from '../services/api';
 // - users: la liste des utilisateurs à afficher.
 // - loading: indique si on est en train de charger.
 // - error: le message si quelque chose ne va pas.
-// - fetchUsers: va chercher les utilisateurs.
+// - fetchUsers: va chercher les utilisateurs (première page ou page suivante).
+// - next: le curseur de la page suivante (null quand tout est chargé).
 // - useEffect: lance fetchUsers quand la page s'ouvre.
 // - Link: bouton/lien pour aller vers la page de création.
 // Objectif du fichier: afficher simplement la liste des utilisateurs récupérée du serveur
@@ -20,19 +21,27 @@ function UserList() {
   const [users, setUsers] = useState([]);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState('');
+  const [next, setNext] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
 
   // On va chercher les utilisateurs (auprès du serveur ou du mode simulé)
-  const fetchUsers = async () => {
+  // - sans curseur: première page, on remplace la liste
+  // - avec curseur: page suivante, on ajoute à la liste
+  const fetchUsers = async (cursor) => {
     try {
-      setLoading(true); // 1) on affiche "chargement"
-      const res = await userService.getAllUsers(); // 2) on demande la liste au service
-      setUsers(res.data || []); // 3) on met à jour la liste (ou une liste vide)
-      setError(''); // 4) on efface un éventuel message d'erreur précédent
+      if (cursor) setLoadingMore(true); else setLoading(true); // 1) on affiche "chargement"
+      const res = await userService.getAllUsers(cursor ? { cursor } : undefined); // 2) on demande la page au service
+      const data = res.data || [];
+      const items = Array.isArray(data) ? data : data.items || []; // page { items, next } côté serveur
+      setUsers(prev => (cursor ? [...prev, ...items] : items)); // 3) on met à jour la liste
+      setNext(Array.isArray(data) ? null : data.next || null); // 4) on garde le curseur de la page suivante
+      setError(''); // 5) on efface un éventuel message d'erreur précédent
     } catch (e) {
       console.error(e); // en cas de souci, on loggue pour le développeur
       setError('Impossible de récupérer les utilisateurs. Lance le backend sur 8080.'); // message simple pour l'utilisateur
     } finally {
-      setLoading(false); // 5) quoi qu'il arrive, on arrête l'état "chargement"
+      setLoading(false); // 6) quoi qu'il arrive, on arrête l'état "chargement"
+      setLoadingMore(false);
     }
   };
 
@@ -79,6 +88,14 @@ function UserList() {
           </tbody>
         </table>
       )}
+      {/* Bouton pour charger la page suivante tant qu'il en reste */}
+      {next && (
+        <div style={{ textAlign: 'center', marginTop: 12 }}>
+          <button onClick={() => fetchUsers(next)} disabled={loadingMore}>
+            {loadingMore ? 'Chargement…' : 'Charger plus'}
+          </button>
+        </div>
+      )}
     </div>
   );
 }
@@ -23,10 +23,13 @@ export const AuthProvider = ({ children }) => {
   const login = async (email, password) => {
     try {
       const response = await authService.login({ email, password });
-      const { accessToken, email: userEmail, userId, expiresIn } = response.data;
+      const { accessToken, refreshToken, email: userEmail, userId, expiresIn } = response.data;
       
-      // Sauvegarder le token et les infos utilisateur
+      // Sauvegarder les tokens et les infos utilisateur
       localStorage.setItem('token', accessToken);
+      if (refreshToken) {
+        localStorage.setItem('refreshToken', refreshToken);
+      }
       localStorage.setItem('user', JSON.stringify({ 
         email: userEmail, 
         userId,
@@ -52,6 +55,9 @@ export const AuthProvider = ({ children }) => {
       return { success: true, data: response.data };
     } catch (error) {
       console.error('Signup error:', error);
+      if (error.response?.status === 409) {
+        return { success: false, error: 'Cet email est déjà utilisé' };
+      }
       return { 
         success: false, 
         error: error.response?.data?.message || error.response?.data || 'Inscription impossible pour le moment.' 
@@ -60,7 +66,14 @@ export const AuthProvider = ({ children }) => {
   };
 
   const logout = () => {
+    // Révoquer les tokens côté serveur pour qu'ils ne soient plus acceptés, même s'ils ont été copiés
+    const token = localStorage.getItem('token');
+    const refreshToken = localStorage.getItem('refreshToken');
+    if (token || refreshToken) {
+      authService.revoke(token, refreshToken).catch(() => {});
+    }
     localStorage.removeItem('token');
+    localStorage.removeItem('refreshToken');
     localStorage.removeItem('user');
     setIsAuthenticated(false);
     setUser(null);
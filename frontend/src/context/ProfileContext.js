@@ -1,5 +1,5 @@
-import { createContext, useContext, useState, useEffect } from 'react';
-import { portfolioService } from '../services/api';
+import { createContext, useContext, useState, useEffect, useRef } from 'react';
+import { portfolioService, changeService } from '../services/api';
 
 const ProfileContext = createContext();
 
@@ -107,6 +107,17 @@ export const ProfileProvider = ({ children }) => {
   // Get active portfolio
   const activePortfolio = portfolios.find(p => p.id === activePortfolioId) || portfolios[0];
 
+  // Flux de changements :
+  // - knownVersions: par portfolio backend, la dernière version connue de cet onglet
+  //   (complete = chargée en entier, donc tout changement de cette version est déjà inclus)
+  // - ownWrites: changements faits par cet onglet ("TYPE:id"), dont l'écho sur le flux est ignoré
+  const knownVersions = useRef(new Map());
+  const ownWrites = useRef(new Map());
+  const noteOwnWrite = (type, ids) => {
+    const expiresAt = Date.now() + 10000;
+    ids.forEach(id => ownWrites.current.set(`${type}:${id}`, expiresAt));
+  };
+
   // Ensure activePortfolioId is always valid
   useEffect(() => {
     if (portfolios.length === 0) {
@@ -224,6 +235,7 @@ export const ProfileProvider = ({ children }) => {
         const backendPortfolios = response.data;
         
         if (backendPortfolios && backendPortfolios.length > 0) {
+          backendPortfolios.forEach(p => knownVersions.current.set(p.idPort || p.id, { version: p.version, complete: true }));
           // Transform backend portfolios to local format
           const transformedPortfolios = backendPortfolios.map(p => {
             // Backend can return either 'idPort' or 'id' depending on the endpoint
@@ -272,6 +284,82 @@ export const ProfileProvider = ({ children }) => {
     };
     
     loadPortfoliosFromBackend();
+
+    // Apply the changes the server reports (other tab, other device) instead of polling:
+    // deletions are applied locally, a created/updated experience or education is fetched alone,
+    // and only portfolio-level changes reload the list (coalesced). Echoes of this tab's own writes
+    // and events already covered by the loaded version are skipped.
+    const user = JSON.parse(localStorage.getItem('user') || '{}');
+    if (!user.userId) return undefined;
+    let reloadTimer = null;
+    const scheduleReload = () => {
+      clearTimeout(reloadTimer);
+      reloadTimer = setTimeout(loadPortfoliosFromBackend, 300);
+    };
+    const rememberVersion = (event) => {
+      const known = knownVersions.current.get(event.portfolioId);
+      if (event.version != null && (!known || event.version > known.version)) {
+        knownVersions.current.set(event.portfolioId, { version: event.version, complete: false });
+      }
+    };
+    const isAlreadyKnown = (event) => {
+      const known = knownVersions.current.get(event.portfolioId);
+      if (!known || event.version == null) return false;
+      // Events of one transaction share its version: only a full load guarantees all of them are included
+      return known.complete ? event.version <= known.version : event.version < known.version;
+    };
+    const updateChildren = (portfolioId, key, change) => {
+      setPortfolios(prev => prev.map(p => (p.backendId === portfolioId ? { ...p, [key]: change(p[key] || []) } : p)));
+    };
+    const upsert = (items, item, idKey) => (
+      items.some(existing => existing[idKey] === item[idKey])
+        ? items.map(existing => (existing[idKey] === item[idKey] ? item : existing))
+        : [...items, item]
+    );
+    const applyChange = async (event) => {
+      const ownKey = `${event.type}:${event.id}`;
+      const ownUntil = ownWrites.current.get(ownKey);
+      if (ownUntil) {
+        ownWrites.current.delete(ownKey);
+        if (ownUntil > Date.now()) {
+          rememberVersion(event);
+          return;
+        }
+      }
+      if (isAlreadyKnown(event)) return;
+      rememberVersion(event);
+
+      try {
+        if (event.type === 'EXPERIENCE') {
+          if (event.operation === 'DELETED') {
+            updateChildren(event.portfolioId, 'experiences', items => items.filter(exp => exp.idExp !== event.id));
+          } else {
+            const { data } = await portfolioService.getExperienceById(event.id);
+            if (data) updateChildren(event.portfolioId, 'experiences', items => upsert(items, { ...data, idExp: data.id }, 'idExp'));
+          }
+        } else if (event.type === 'EDUCATION') {
+          if (event.operation === 'DELETED') {
+            updateChildren(event.portfolioId, 'educations', items => items.filter(edu => edu.idEdu !== event.id));
+          } else {
+            const { data } = await portfolioService.getEducationById(event.id);
+            if (data) updateChildren(event.portfolioId, 'educations', items => upsert(items, { ...data, idEdu: data.id }, 'idEdu'));
+          }
+        } else if (event.type === 'PORTFOLIO' && event.operation === 'DELETED') {
+          knownVersions.current.delete(event.portfolioId);
+          setPortfolios(prev => prev.filter(p => p.backendId !== event.portfolioId));
+        } else {
+          scheduleReload();
+        }
+      } catch (error) {
+        console.error('Error applying change:', event, error);
+        scheduleReload();
+      }
+    };
+    const unsubscribe = changeService.subscribe(applyChange);
+    return () => {
+      clearTimeout(reloadTimer);
+      unsubscribe();
+    };
   }, []); // Run once on mount
 
   const updateProfile = (newData) => {
@@ -307,6 +395,7 @@ export const ProfileProvider = ({ children }) => {
           languages: [] // Languages not in backend yet
         };
         
+        noteOwnWrite('PORTFOLIO', [portfolioId]);
         setPortfolios(prev => [...prev, newPortfolio]);
         setActivePortfolioId(newPortfolio.id);
         console.log('Portfolio created in backend:', newPortfolio);
@@ -343,12 +432,54 @@ export const ProfileProvider = ({ children }) => {
     }
   };
 
+  // Envoie au backend un portfolio créé hors ligne (sans backendId) : le portfolio,
+  // puis toutes ses expériences et formations en une requête groupée (/bulk) chacune
+  const syncPortfolio = async (id) => {
+    const portfolio = portfolios.find(p => p.id === id);
+    const user = JSON.parse(localStorage.getItem('user') || '{}');
+    if (!portfolio || portfolio.backendId || !user.userId) return portfolio;
+
+    try {
+      const response = await portfolioService.createPortfolio(user.userId, { name: portfolio.name });
+      const backendId = response.data.idPort || response.data.id;
+      noteOwnWrite('PORTFOLIO', [backendId]);
+
+      // Local ids (Date.now) must not reach the backend, which assigns its own
+      const experiencesToSend = (portfolio.experiences || []).map(({ id: _id, idExp, ...rest }) => rest);
+      const educationsToSend = (portfolio.educations || []).map(({ id: _id, idEdu, ...rest }) => rest);
+      const [experiencesResponse, educationsResponse] = await Promise.all([
+        experiencesToSend.length ? portfolioService.createExperiences(backendId, experiencesToSend) : { data: [] },
+        educationsToSend.length ? portfolioService.createEducations(backendId, educationsToSend) : { data: [] },
+      ]);
+
+      noteOwnWrite('EXPERIENCE', experiencesResponse.data.map(exp => exp.id));
+      noteOwnWrite('EDUCATION', educationsResponse.data.map(edu => edu.id));
+      const syncedPortfolio = {
+        ...portfolio,
+        id: backendId,
+        backendId,
+        experiences: experiencesResponse.data.map(exp => ({ ...exp, idExp: exp.id })),
+        educations: educationsResponse.data.map(edu => ({ ...edu, idEdu: edu.id })),
+      };
+      setPortfolios(prev => prev.map(p => (p.id === id ? syncedPortfolio : p)));
+      if (activePortfolioId === id) {
+        setActivePortfolioId(backendId);
+      }
+      return syncedPortfolio;
+    } catch (error) {
+      console.error('Error syncing portfolio:', error);
+      alert('Erreur lors de la synchronisation du portfolio. Vérifiez que le backend est démarré.');
+      throw error;
+    }
+  };
+
   const updatePortfolio = async (id, updates) => {
     try {
       const portfolio = portfolios.find(p => p.id === id);
       const backendId = portfolio?.backendId || id;
       
       // Update in backend
+      noteOwnWrite('PORTFOLIO', [backendId]);
       await portfolioService.updatePortfolio(backendId, updates);
       
       // Update local state
@@ -401,6 +532,7 @@ export const ProfileProvider = ({ children }) => {
     // Delete from backend in background (fire and forget)
     if (backendId) {
       console.log('🌐 Deleting from backend with ID:', backendId);
+      noteOwnWrite('PORTFOLIO', [backendId]);
       portfolioService.deletePortfolio(backendId)
         .then(() => {
           console.log('✅ Portfolio deleted from backend successfully');
@@ -437,7 +569,7 @@ export const ProfileProvider = ({ children }) => {
       // Check if this is a local-only portfolio (created with Date.now(), so very large ID without backendId)
       if (!activePortfolio?.backendId && portfolioId > 1000000000000) {
         console.warn('Portfolio not synced with backend (local-only portfolio with timestamp ID)');
-        alert('Le portfolio n\'est pas synchronisé avec le backend. Veuillez créer un nouveau portfolio via l\'interface Admin.');
+        alert('Le portfolio n\'est pas synchronisé avec le backend. Synchronisez-le depuis l\'onglet "Mes Portfolios".');
         throw new Error('Portfolio not synced with backend');
       }
       
@@ -446,6 +578,7 @@ export const ProfileProvider = ({ children }) => {
       // Call backend API
       const response = await portfolioService.createExperience(portfolioId, experience);
       const backendExperience = response.data;
+      noteOwnWrite('EXPERIENCE', [backendExperience.id]);
       
       // Transform backend response: map 'id' to 'idExp'
       const newExperience = {
@@ -456,7 +589,7 @@ export const ProfileProvider = ({ children }) => {
       console.log('Experience created in backend:', newExperience);
       
       // Update local state with backend response ONLY on success
-      setExperiences(prev => [...prev, newExperience]);
+      setExperiences(prev => [...prev.filter(exp => exp.idExp !== newExperience.idExp), newExperience]); // the change feed may have added it already
       return newExperience;
     } catch (error) {
       console.error('Error adding experience:', error);
@@ -482,6 +615,7 @@ export const ProfileProvider = ({ children }) => {
       console.log('Updating experience:', idExp, updates);
       
       // Call backend API (backend expects 'id' field)
+      noteOwnWrite('EXPERIENCE', [idExp]);
       const response = await portfolioService.updateExperience(idExp, updates);
       const backendExperience = response.data;
       
@@ -518,6 +652,7 @@ export const ProfileProvider = ({ children }) => {
       console.log('Deleting experience:', idExp);
       
       // Call backend API
+      noteOwnWrite('EXPERIENCE', [idExp]);
       await portfolioService.deleteExperience(idExp);
       
       console.log('Experience deleted from backend');
@@ -557,7 +692,7 @@ export const ProfileProvider = ({ children }) => {
       // Check if this is a local-only portfolio (created with Date.now(), so very large ID without backendId)
       if (!activePortfolio?.backendId && portfolioId > 1000000000000) {
         console.warn('Portfolio not synced with backend (local-only portfolio with timestamp ID)');
-        alert('Le portfolio n\'est pas synchronisé avec le backend. Veuillez créer un nouveau portfolio via l\'interface Admin.');
+        alert('Le portfolio n\'est pas synchronisé avec le backend. Synchronisez-le depuis l\'onglet "Mes Portfolios".');
         throw new Error('Portfolio not synced with backend');
       }
       
@@ -566,6 +701,7 @@ export const ProfileProvider = ({ children }) => {
       // Call backend API
       const response = await portfolioService.createEducation(portfolioId, education);
       const backendEducation = response.data;
+      noteOwnWrite('EDUCATION', [backendEducation.id]);
       
       // Transform backend response: map 'id' to 'idEdu'
       const newEducation = {
@@ -576,7 +712,7 @@ export const ProfileProvider = ({ children }) => {
       console.log('Education created in backend:', newEducation);
       
       // Update local state with backend response ONLY on success
-      setEducations(prev => [...prev, newEducation]);
+      setEducations(prev => [...prev.filter(edu => edu.idEdu !== newEducation.idEdu), newEducation]); // the change feed may have added it already
       return newEducation;
     } catch (error) {
       console.error('Error adding education:', error);
@@ -602,6 +738,7 @@ export const ProfileProvider = ({ children }) => {
       console.log('Updating education:', idEdu, updates);
       
       // Call backend API (backend expects 'id' field)
+      noteOwnWrite('EDUCATION', [idEdu]);
       const response = await portfolioService.updateEducation(idEdu, updates);
       const backendEducation = response.data;
       
@@ -638,6 +775,7 @@ export const ProfileProvider = ({ children }) => {
       console.log('Deleting education:', idEdu);
       
       // Call backend API
+      noteOwnWrite('EDUCATION', [idEdu]);
       await portfolioService.deleteEducation(idEdu);
       
       console.log('Education deleted from backend');
@@ -703,6 +841,7 @@ export const ProfileProvider = ({ children }) => {
       activePortfolioId,
       activePortfolio,
       createPortfolio,
+      syncPortfolio,
       updatePortfolio,
       deletePortfolio,
       switchPortfolio,
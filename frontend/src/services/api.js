@@ -25,15 +25,62 @@ api.interceptors.request.use(
   }
 );
 
+// Renouvelle le token d'accès (courte durée) avec le refresh token, une seule requête à la fois.
+// Le refresh token change à chaque utilisation : on garde toujours le dernier reçu.
+// Les onglets partagent le localStorage : un verrou (Web Locks) évite que deux onglets échangent le même
+// refresh token ; celui qui attendait réutilise simplement les tokens obtenus par l'autre.
+const withRefreshLock = (task) => (navigator.locks
+  ? navigator.locks.request('flexfolio-token-refresh', task)
+  : Promise.resolve().then(task));
+
+let refreshing = null;
+export const refreshAccessToken = () => {
+  if (!refreshing) {
+    const seenRefreshToken = localStorage.getItem('refreshToken');
+    refreshing = withRefreshLock(() => {
+      // Le token d'accès (même expiré) accompagne le refresh token : il prouve au serveur que c'est bien ce client
+      // qui répète un échange tout juste fait. On le lit avant le refresh token, et on écrit dans l'ordre inverse,
+      // pour ne jamais envoyer un ancien refresh token avec le nouveau token d'accès.
+      const accessToken = localStorage.getItem('token');
+      const refreshToken = localStorage.getItem('refreshToken');
+      if (!refreshToken) {
+        return Promise.reject(new Error('No refresh token'));
+      }
+      if (refreshToken !== seenRefreshToken) {
+        // Un autre onglet vient de le renouveler
+        return localStorage.getItem('token');
+      }
+      return axios.post(`${API_BASE_URL}/auth/refresh`, { refreshToken, accessToken }).then(({ data }) => {
+        localStorage.setItem('refreshToken', data.refreshToken);
+        localStorage.setItem('token', data.accessToken);
+        return data.accessToken;
+      });
+    }).finally(() => { refreshing = null; });
+  }
+  return refreshing;
+};
+
 // Axios Response Interceptor - Gère les erreurs d'authentification
 api.interceptors.response.use(
   (response) => {
     return response;
   },
-  (error) => {
-    if (error.response && error.response.status === 401) {
-      // Token expiré ou invalide - déconnecter l'utilisateur
+  async (error) => {
+    const { config, response } = error;
+    if (response && response.status === 401) {
+      // Token expiré : on le renouvelle une fois et on rejoue la requête
+      if (config && !config._retried && !String(config.url).startsWith('/auth/')) {
+        config._retried = true;
+        try {
+          await refreshAccessToken();
+          return api(config);
+        } catch (_) {
+          // refresh impossible : on déconnecte ci-dessous
+        }
+      }
+      // Token invalide ou session terminée - déconnecter l'utilisateur
       localStorage.removeItem('token');
+      localStorage.removeItem('refreshToken');
       localStorage.removeItem('user');
       window.location.href = '/login';
     }
@@ -43,7 +90,7 @@ api.interceptors.response.use(
 
 // On définit des fonctions qui parlent au vrai serveur
 const realUserService = {
-  getAllUsers: () => api.get('/users'), // Demande la liste de tous les utilisateurs
+  getAllUsers: (params) => api.get('/users', { params }), // Demande une page d'utilisateurs ({ cursor, limit })
   getUserById: (id) => api.get(`/users/${id}`), // Demande les infos d'un utilisateur précis
   createUser: (user) => api.post('/users', user), // Demande de créer un nouvel utilisateur
   updateUser: (id, user) => api.put(`/users/${id}`, user), // Demande de modifier un utilisateur
@@ -131,6 +178,9 @@ const realAuthService = {
   signup: ({ email, password }) => api.post('/auth/register', { email, password }),
   forgotPassword: ({ email }) => api.post('/auth/forgot-password', { email }),
   validateToken: () => api.post('/auth/validate'),
+  // Révoque les tokens (déconnexion) ; passés explicitement car ils sont retirés du stockage juste après
+  revoke: (token, refreshToken) => api.post('/auth/revoke', { refreshToken },
+    { headers: token ? { Authorization: `Bearer ${token}` } : {} }),
 };
 
 const mockAuthService = {
@@ -164,7 +214,7 @@ const mockAuthService = {
     const users = readUsers();
     if (users.some(u => u.email === email)) {
       const err = new Error('Email already exists');
-      err.response = { status: 400, data: { message: 'Cet email est déjà utilisé' } };
+      err.response = { status: 409, data: { message: 'Cet email est déjà utilisé' } };
       throw err;
     }
     // Create new user (mock) - Match backend UserDto format
@@ -191,6 +241,10 @@ const mockAuthService = {
     // Mock token validation - always return true for mock
     return { data: true };
   },
+  async revoke() {
+    await delay();
+    return { data: {} };
+  },
 };
 
 export const userService = USE_MOCK ? mockUserService : realUserService;
@@ -199,7 +253,7 @@ export const authService = USE_MOCK ? mockAuthService : realAuthService;
 // Portfolio service
 const realPortfolioService = {
   // Portfolio endpoints
-  getAllPortfolios: () => api.get('/portfolios'),
+  getAllPortfolios: (params) => api.get('/portfolios', { params }),
   getPortfolioById: (id) => api.get(`/portfolios/${id}`),
   getUserPortfolios: (userId) => api.get(`/portfolios/user/${userId}`),
   createPortfolio: (userId, portfolioData) => api.post(`/portfolios/${userId}`, portfolioData),
@@ -207,17 +261,21 @@ const realPortfolioService = {
   deletePortfolio: (id) => api.delete(`/portfolios/${id}`),
   
   // Experience endpoints
-  getAllExperiences: () => api.get('/experiences'),
+  getAllExperiences: (params) => api.get('/experiences', { params }),
   getExperienceById: (id) => api.get(`/experiences/${id}`),
   createExperience: (portfolioId, experience) => api.post(`/experiences/${portfolioId}`, experience),
+  createExperiences: (portfolioId, experiences) => api.post(`/experiences/${portfolioId}/bulk`, experiences),
   updateExperience: (id, experience) => api.put(`/experiences/${id}`, experience),
+  patchExperience: (id, changes) => api.patch(`/experiences/${id}`, changes), // autosave: only changed fields, 204
   deleteExperience: (id) => api.delete(`/experiences/${id}`),
   
   // Education endpoints
-  getAllEducations: () => api.get('/educations'),
+  getAllEducations: (params) => api.get('/educations', { params }),
   getEducationById: (id) => api.get(`/educations/${id}`),
   createEducation: (portfolioId, education) => api.post(`/educations/${portfolioId}`, education),
+  createEducations: (portfolioId, educations) => api.post(`/educations/${portfolioId}/bulk`, educations),
   updateEducation: (id, education) => api.put(`/educations/${id}`, education),
+  patchEducation: (id, changes) => api.patch(`/educations/${id}`, changes), // autosave: only changed fields, 204
   deleteEducation: (id) => api.delete(`/educations/${id}`),
 };
 
@@ -297,6 +355,13 @@ const mockPortfolioService = {
     localStorage.setItem('experiences', JSON.stringify(experiences));
     return { data: newExperience };
   },
+  async createExperiences(portfolioId, experiences) {
+    const created = [];
+    for (const experience of experiences) {
+      created.push((await this.createExperience(portfolioId, experience)).data);
+    }
+    return { data: created };
+  },
   async updateExperience(id, experience) {
     await delay();
     const experiences = JSON.parse(localStorage.getItem('experiences') || '[]');
@@ -340,6 +405,13 @@ const mockPortfolioService = {
     localStorage.setItem('educations', JSON.stringify(educations));
     return { data: newEducation };
   },
+  async createEducations(portfolioId, educations) {
+    const created = [];
+    for (const education of educations) {
+      created.push((await this.createEducation(portfolioId, education)).data);
+    }
+    return { data: created };
+  },
   async updateEducation(id, education) {
     await delay();
     const educations = JSON.parse(localStorage.getItem('educations') || '[]');
@@ -361,5 +433,61 @@ const mockPortfolioService = {
 };
 
 export const portfolioService = USE_MOCK ? mockPortfolioService : realPortfolioService;
+
+// Flux de changements (server-sent events) : le serveur pousse { type, id, portfolioId, operation, version }
+// après chaque modification validée, au lieu de recharger les portfolios en boucle.
+// On utilise fetch (et pas EventSource) pour pouvoir envoyer le token JWT dans l'en-tête Authorization.
+// Renvoie une fonction pour se désabonner.
+const realChangeService = {
+  subscribe(onChange) {
+    const controller = new AbortController();
+    const connect = async () => {
+      while (!controller.signal.aborted) {
+        try {
+          const token = localStorage.getItem('token');
+          const res = await fetch(`${API_BASE_URL}/changes/stream`, {
+            headers: { Accept: 'text/event-stream', Authorization: `Bearer ${token}` },
+            signal: controller.signal,
+          });
+          if (res.status === 401) {
+            // token d'accès expiré : on le renouvelle puis on se reconnecte, sinon on arrête
+            try { await refreshAccessToken(); continue; } catch (_) { return; }
+          }
+          if (res.status === 403) return; // plus autorisé : on arrête
+          const reader = res.body.getReader();
+          const decoder = new TextDecoder();
+          let buffer = '';
+          for (;;) {
+            const { value, done } = await reader.read();
+            if (done) break;
+            buffer += decoder.decode(value, { stream: true });
+            const blocks = buffer.split('\n\n');
+            buffer = blocks.pop(); // le dernier bloc peut être incomplet
+            for (const block of blocks) {
+              const data = block.split('\n')
+                .filter(line => line.startsWith('data:'))
+                .map(line => line.slice(5).trim())
+                .join('\n');
+              if (data) onChange(JSON.parse(data));
+            }
+          }
+        } catch (e) {
+          if (controller.signal.aborted) return;
+        }
+        await delay(3000); // flux terminé ou coupé : on se reconnecte
+      }
+    };
+    connect();
+    return () => controller.abort();
+  },
+};
+
+const mockChangeService = {
+  subscribe() {
+    return () => {};
+  },
+};
+
+export const changeService = USE_MOCK ? mockChangeService : realChangeService;
 export default api;
 